@@ -27,6 +27,8 @@ android {
         buildConfigField("String", "API_KEY", "\"${localProperties.getProperty("GROQ_API_KEY", "")}\"")
         buildConfigField("String", "JDOODLE_CLIENT_ID", "\"${localProperties.getProperty("JDOODLE_CLIENT_ID", "")}\"")
         buildConfigField("String", "JDOODLE_CLIENT_SECRET", "\"${localProperties.getProperty("JDOODLE_CLIENT_SECRET", "")}\"")
+        // Groq tokens-per-minute limit of the account tier, used for pacing until Groq reports it
+        buildConfigField("int", "GROQ_TOKENS_PER_MINUTE", localProperties.getProperty("GROQ_TOKENS_PER_MINUTE", "6000"))
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
     }
@@ -65,6 +67,11 @@ android {
     buildFeatures {
         buildConfig = true
     }
+
+    // Local unit tests run services that log through android.util.Log
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -115,6 +122,12 @@ dependencies {
 
     // Testing
     testImplementation(libs.junit)
+    // android.jar only has stubs of org.json, local tests need the real classes
+    testImplementation("org.json:json:20231013")
+    // PDFBox-Android needs a device for its font assets, JVM benchmarks use the library it is ported from
+    testImplementation("org.apache.pdfbox:pdfbox:2.0.27")
+    // XmlPullParser is only stubbed too; KXmlParser is the implementation Android ships
+    testImplementation("net.sf.kxml:kxml2:2.3.0")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
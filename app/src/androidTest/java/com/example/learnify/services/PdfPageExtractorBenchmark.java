@@ -0,0 +1,149 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.tom_roush.pdfbox.android.PDFBoxResourceLoader;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.PDPageContentStream;
+import com.tom_roush.pdfbox.pdmodel.font.PDType1Font;
+import com.tom_roush.pdfbox.text.PDFTextStripper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * PdfPageExtractor against the single PDFTextStripper pass HomeFragment used before, on generated
+ * PDFs. Reports when the quiz could start (the hand-off) and when the last page was read.
+ * Runs on a device, PDFBox-Android needs its assets.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PdfPageExtractorBenchmark {
+
+    private static final String TAG = "PdfBenchmark";
+    private static final int LINES_PER_PAGE = 40;
+
+    private Context context;
+    private final List<File> files = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        PDFBoxResourceLoader.init(context);
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : files) file.delete();
+    }
+
+    @Test
+    public void readsEveryPageAfterHandOff() throws Exception {
+        File pdf = generate(80);
+        List<Integer> lastPages = new ArrayList<>();
+        int[] handOffAt = {-1};
+
+        String text = new PdfPageExtractor(context).extract(Uri.fromFile(pdf), new PdfPageExtractor.Listener() {
+            @Override
+            public void onStart(int pageCount, int sectionCount) {
+                assertEquals(80, pageCount);
+            }
+
+            @Override
+            public void onSection(String title, int firstPage, int lastPage, String text) {
+                lastPages.add(lastPage);
+            }
+
+            @Override
+            public void onProgress(int pagesDone, int pageCount) {}
+
+            @Override
+            public void onEnoughContent() {
+                handOffAt[0] = lastPages.size();
+            }
+        });
+
+        assertTrue("hand-off should come before the last page", handOffAt[0] > 0 && handOffAt[0] < 80);
+        assertEquals(80, lastPages.size());
+        assertTrue(text.contains("Page 80 line " + (LINES_PER_PAGE - 1)));
+    }
+
+    @Test
+    public void benchmarkByPageCount() throws Exception {
+        for (int pages : new int[]{50, 300}) {
+            File pdf = generate(pages);
+
+            long start = System.nanoTime();
+            String whole;
+            try (PDDocument doc = PDDocument.load(pdf)) {
+                whole = new PDFTextStripper().getText(doc);
+            }
+            long wholeMs = (System.nanoTime() - start) / 1_000_000;
+
+            for (int workers : new int[]{1, PdfPageExtractor.DEFAULT_WORKERS}) {
+                long[] handOffMs = {-1};
+                long runStart = System.nanoTime();
+                String text = new PdfPageExtractor(context, PdfPageExtractor.DEFAULT_HAND_OFF_CHARS, workers)
+                        .extract(Uri.fromFile(pdf), new PdfPageExtractor.Listener() {
+                            @Override
+                            public void onStart(int pageCount, int sectionCount) {}
+
+                            @Override
+                            public void onSection(String title, int firstPage, int lastPage, String text) {}
+
+                            @Override
+                            public void onProgress(int pagesDone, int pageCount) {}
+
+                            @Override
+                            public void onEnoughContent() {
+                                handOffMs[0] = (System.nanoTime() - runStart) / 1_000_000;
+                            }
+                        });
+                long totalMs = (System.nanoTime() - runStart) / 1_000_000;
+
+                assertEquals(whole.length(), text.length());
+                Log.i(TAG, pages + " pages, " + workers + " workers: quiz could start after " + handOffMs[0]
+                        + " ms, all pages in " + totalMs + " ms (single getText: " + wholeMs + " ms)");
+            }
+        }
+    }
+
+    private File generate(int pages) throws IOException {
+        File file = File.createTempFile("bench", ".pdf", context.getCacheDir());
+        files.add(file);
+        try (PDDocument doc = new PDDocument()) {
+            for (int p = 1; p <= pages; p++) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 9);
+                    content.setLeading(11);
+                    content.newLineAtOffset(40, 750);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        content.showText("Page " + p + " line " + line
+                                + ": chlorophyll absorbs light and the Calvin cycle fixes carbon dioxide.");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            doc.save(file);
+        }
+        return file;
+    }
+}
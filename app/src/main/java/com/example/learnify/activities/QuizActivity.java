@@ -20,6 +20,7 @@ import androidx.viewpager2.widget.ViewPager2;
 
 import com.example.learnify.helpers.CustomToast;
 import com.example.learnify.helpers.DialogHelper;
+import com.example.learnify.helpers.QuizStreamSession;
 import com.example.learnify.modelclass.Quiz;
 import com.example.learnify.repository.QuizAttemptRepository;
 import com.example.learnify.repository.QuizHistoryRepository;
@@ -61,6 +62,7 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
     private int currentQuestionIndex = 0;
     private CountDownTimer quizTimer;
     private long totalTimeInMillis;
+    private long timeLeftInMillis;
     private boolean isSubmitted = false;
     private long backPressedTime = 0;
     private Toast exitToast;
@@ -68,6 +70,10 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
     private UserActionRepository actionRepository;
     private QuizHistoryRepository historyRepository;
 
+    // Set while questions are still being streamed in by GenerateQuizFragment
+    private QuizStreamSession streamSession;
+    private boolean isStreaming = false;
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -120,6 +126,16 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
 
             setupQuiz();
 
+        } else if (getIntent().hasExtra("QUIZ_STREAM_ID")) {
+            streamSession = QuizStreamSession.get(getIntent().getStringExtra("QUIZ_STREAM_ID"));
+            if (streamSession == null || streamSession.getQuestions().isEmpty()) {
+                Log.e(TAG, "❌ Stream session missing");
+                CustomToast.error(this, getString(R.string.error_loading));
+                finish();
+                return;
+            }
+            startStreamingQuiz();
+
         } else if (getIntent().hasExtra("QUIZ_ID")) {
             Log.d(TAG, "📥 Loading quiz from Firestore: " + currentQuizId);
             fetchQuizFromFirestore(currentQuizId);
@@ -132,6 +148,72 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
         setupBackPressHandler();
     }
 
+    /**
+     * Start on the questions received so far and keep appending as the stream continues
+     */
+    private void startStreamingQuiz() {
+        questions = new ArrayList<>();
+        for (QuizQuestion q : streamSession.getQuestions()) {
+            prepareQuestion(q, questions.size());
+            questions.add(q);
+        }
+        isStreaming = !streamSession.isFinished();
+        if (streamSession.getQuizId() != null) currentQuizId = streamSession.getQuizId();
+        if (streamSession.getTitle() != null) currentQuizTitle = streamSession.getTitle();
+
+        Log.d(TAG, "⚡ Streaming quiz started with " + questions.size() + " questions");
+        setupQuiz();
+
+        streamSession.setListener(new QuizStreamSession.Listener() {
+            @Override
+            public void onQuestionAdded(QuizQuestion question) {
+                if (isSubmitted) return;
+                prepareQuestion(question, questions.size());
+                questions.add(question);
+                Log.d(TAG, "📨 Streamed question added. Total: " + questions.size());
+
+                if (viewPager.getAdapter() != null) {
+                    viewPager.getAdapter().notifyItemInserted(questions.size() - 1);
+                }
+                progressBar.setMax(questions.size());
+                extendTimer((long) (question.timeLimit * 60 * 1000));
+                updateButtonState(currentQuestionIndex);
+            }
+
+            @Override
+            public void onCompleted(String quizId, String title) {
+                Log.d(TAG, "✅ Stream complete: " + questions.size() + " questions, id=" + quizId);
+                isStreaming = false;
+                if (quizId != null) currentQuizId = quizId;
+                if (title != null) currentQuizTitle = title;
+                updateButtonState(currentQuestionIndex);
+            }
+
+            @Override
+            public void onFailed(String error) {
+                Log.e(TAG, "❌ Stream failed after " + questions.size() + " questions: " + error);
+                // Keep the quiz playable with whatever arrived
+                isStreaming = false;
+                updateButtonState(currentQuestionIndex);
+            }
+        });
+    }
+
+    private void prepareQuestion(QuizQuestion question, int index) {
+        question.id = index + 1;
+        if (question.difficulty == null || question.difficulty.isEmpty()) {
+            question.difficulty = "NORMAL";
+        }
+        if (question.timeLimit <= 0) question.timeLimit = 1.0f;
+    }
+
+    /**
+     * True when the user is on the last received question but more are still on the way
+     */
+    private boolean isWaitingForStream(int position) {
+        return isStreaming && position >= questions.size() - 1;
+    }
+
     private void setupQuiz() {
         Log.d(TAG, "📋 Setting up quiz with " + questions.size() + " questions");
 
@@ -182,7 +264,7 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
 
         QuizQuestion currentQuestion = questions.get(position);
         boolean isCodingQuestion = currentQuestion.type != null && currentQuestion.type.equals("CODING");
-        boolean isLastQuestion = position == questions.size() - 1;
+        boolean isLastQuestion = position == questions.size() - 1 && !isStreaming;
 
         if (isCodingQuestion) {
             // CODING QUESTION
@@ -214,6 +296,11 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
      * Skip the current question - award 0 marks
      */
     private void skipQuestion() {
+        if (isWaitingForStream(currentQuestionIndex)) {
+            CustomToast.info(this, getString(R.string.msg_more_questions_loading));
+            return;
+        }
+
         QuizQuestion currentQuestion = questions.get(currentQuestionIndex);
 
         // Mark as answered and skipped (incorrect)
@@ -248,9 +335,15 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
     }
 
     private void startTimer() {
-        quizTimer = new CountDownTimer(totalTimeInMillis, 1000) {
+        startTimer(totalTimeInMillis);
+    }
+
+    private void startTimer(long durationInMillis) {
+        timeLeftInMillis = durationInMillis;
+        quizTimer = new CountDownTimer(durationInMillis, 1000) {
             @Override
             public void onTick(long millisUntilFinished) {
+                timeLeftInMillis = millisUntilFinished;
                 long minutes = TimeUnit.MILLISECONDS.toMinutes(millisUntilFinished);
                 long seconds = TimeUnit.MILLISECONDS.toSeconds(millisUntilFinished) -
                         TimeUnit.MINUTES.toSeconds(minutes);
@@ -266,6 +359,16 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
         }.start();
     }
 
+    /**
+     * Add time for a question that arrived after the timer started
+     */
+    private void extendTimer(long extraMillis) {
+        totalTimeInMillis += extraMillis;
+        if (isSubmitted || quizTimer == null) return;
+        quizTimer.cancel();
+        startTimer(timeLeftInMillis + extraMillis);
+    }
+
     public void onOptionSelected(int selectedOptionIndex, boolean isCorrect) {
         Log.d(TAG, "Question " + currentQuestionIndex + " answered. Correct: " + isCorrect);
 
@@ -343,6 +446,8 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
         if (currentQuestionIndex < questions.size() - 1) {
             viewPager.setCurrentItem(currentQuestionIndex + 1, true);
             // btnNext will be updated by onPageSelected callback
+        } else if (isStreaming) {
+            CustomToast.info(this, getString(R.string.msg_more_questions_loading));
         } else {
             finishQuiz();
         }
@@ -441,8 +546,8 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
                     fragmentContainer.setVisibility(View.VISIBLE);
                 }
 
-                // Create GenerateQuizFragment with same content
-                GenerateQuizFragment generateFragment = GenerateQuizFragment.newInstance(quizSourceContent);
+                // Create GenerateQuizFragment with same content, skipping the cached quiz
+                GenerateQuizFragment generateFragment = GenerateQuizFragment.newInstance(quizSourceContent, true);
 
                 // Replace current fragment stack
                 getSupportFragmentManager().beginTransaction()
@@ -526,6 +631,11 @@ public class QuizActivity extends BaseActivity implements QuizCompleteDialogFrag
     protected void onDestroy() {
         super.onDestroy();
         if (quizTimer != null) quizTimer.cancel();
+        if (streamSession != null) {
+            streamSession.setListener(null);
+            // The recreated activity picks the session up again by id
+            if (!isChangingConfigurations()) QuizStreamSession.remove(streamSession.getId());
+        }
     }
 
     private static class QuizPagerAdapter extends FragmentStateAdapter {
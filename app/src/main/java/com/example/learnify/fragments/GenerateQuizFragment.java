@@ -3,10 +3,13 @@ package com.example.learnify.fragments;
 import android.app.Dialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.TextView;
 
 import androidx.activity.OnBackPressedCallback;
 import androidx.annotation.NonNull;
@@ -14,48 +17,125 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.example.learnify.BuildConfig;
+import com.example.learnify.helpers.ContentStreamSession;
 import com.example.learnify.helpers.CustomToast;
 import com.example.learnify.helpers.DialogHelper;
+import com.example.learnify.helpers.QuizStreamSession;
 import com.example.learnify.managers.LanguageManager;
 import com.example.learnify.modelclass.Quiz;
 import com.example.learnify.modelclass.QuizSettings;
 import com.example.learnify.activities.QuizActivity;
+import com.example.learnify.services.ChunkedQuizGenerator;
 import com.example.learnify.services.QuizNetworkService;
+import com.example.learnify.services.SpeculativeQuizGenerator;
 import com.example.learnify.services.YouTubeFallbackService;
 import com.example.learnify.services.YouTubeTranscriptService;
 import com.example.learnify.modelclass.QuizQuestion;
 import com.example.learnify.R;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.gson.Gson;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 public class GenerateQuizFragment extends Fragment {
 
     private static final String TAG = "GenerateQuizFragment";
     private static final String ARG_EXTRACTED_TEXT = "EXTRACTED_TEXT";
+    private static final String ARG_BYPASS_CACHE = "BYPASS_CACHE";
+    private static final String ARG_CONTENT_STREAM_ID = "CONTENT_STREAM_ID";
+    private static final String STATE_GENERATION_ID = "GENERATION_ID";
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Runs handed from an instance destroyed by a configuration change to its recreated instance.
+    // Bounded in case the new instance never comes; evicted runs are cancelled.
+    private static final int MAX_HANDOFFS = 4;
+    private static final Map<String, Generation> handoffs = new LinkedHashMap<String, Generation>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Generation> eldest) {
+            if (size() <= MAX_HANDOFFS) return false;
+            eldest.getValue().stop();
+            return true;
+        }
+    };
 
     private String inputContent = "";
+    // Set when the content is still being extracted (playlists); generation starts on the first sections
+    private ContentStreamSession contentStream;
+    private boolean contentStreamLost = false;
     private QuizNetworkService quizService;
+    private SpeculativeQuizGenerator speculator;
     private YouTubeTranscriptService transcriptService;
     private YouTubeFallbackService fallbackService;
     private Dialog loadingDialog;
     private QuizSettings currentQuizSettings;
     private boolean isGenerating = false;
+    private boolean bypassCache = false;
+    private Generation generation;
+
+    // Streaming: QuizActivity opens on the first question, the rest follow through the session
+    private final Gson gson = new Gson();
+    private QuizStreamSession streamSession;
+    private String streamedTopic;
 
     // Regex to detect YouTube URLs
     private static final Pattern YOUTUBE_URL_PATTERN = Pattern.compile(
             "^(https?://)?(www\\.)?(youtube\\.com|youtu\\.?be)/.+$"
     );
 
-    private final QuizNetworkService.QuizCallback quizCallback = new QuizNetworkService.QuizCallback() {
+    private final QuizNetworkService.QuizStreamCallback quizCallback = new QuizNetworkService.QuizStreamCallback() {
+        @Override
+        public void onTopic(String topic) {
+            streamedTopic = topic;
+            if (streamSession != null) streamSession.setTitle(topic);
+        }
+
+        @Override
+        public void onProgress(int completedChunks, int totalChunks) {
+            if (loadingDialog == null || !loadingDialog.isShowing() || !isAdded()) return;
+            TextView subtitle = loadingDialog.findViewById(R.id.tv_loading_subtitle);
+            if (subtitle != null) {
+                subtitle.setText(getString(R.string.msg_reading_sections, completedChunks, totalChunks));
+                subtitle.setVisibility(View.VISIBLE);
+            }
+        }
+
+        @Override
+        public void onQuestion(QuizQuestion question) {
+            if (streamSession != null) {
+                streamSession.addQuestion(copyQuestion(question));
+                return;
+            }
+
+            if (!isAdded() || getActivity() == null || !isGenerating) {
+                Log.d(TAG, "⚠️ First question arrived but fragment is gone");
+                return;
+            }
+
+            Log.d(TAG, "⚡ First question streamed, opening quiz");
+            streamSession = QuizStreamSession.create();
+            streamSession.setTitle(streamedTopic);
+            streamSession.addQuestion(copyQuestion(question));
+            openStreamingQuiz();
+        }
+
         @Override
         public void onSuccess(List<QuizQuestion> questions, String aiTopic) {
             Log.d(TAG, "✅ Quiz generated: " + questions.size() + " questions");
             isGenerating = false;
 
+            if (streamSession != null) {
+                saveStreamedQuiz(questions, aiTopic);
+                return;
+            }
+
             if (!isAdded() || isDetached() || getActivity() == null) {
                 Log.e(TAG, "❌ Fragment not attached");
                 return;
@@ -87,14 +167,37 @@ public class GenerateQuizFragment extends Fragment {
         public void onError(String error) {
             Log.e(TAG, "❌ AI Generation Error: " + error);
             isGenerating = false;
+            if (streamSession != null) {
+                streamSession.fail(error);
+                return;
+            }
             handleError(getString(R.string.error_generation_failed) + ": " + error);
         }
     };
 
     public static GenerateQuizFragment newInstance(String textOrUrl) {
+        return newInstance(textOrUrl, false);
+    }
+
+    /**
+     * @param bypassCache true for "regenerate": always ask the AI for a new quiz
+     */
+    public static GenerateQuizFragment newInstance(String textOrUrl, boolean bypassCache) {
         GenerateQuizFragment fragment = new GenerateQuizFragment();
         Bundle args = new Bundle();
         args.putString(ARG_EXTRACTED_TEXT, textOrUrl);
+        args.putBoolean(ARG_BYPASS_CACHE, bypassCache);
+        fragment.setArguments(args);
+        return fragment;
+    }
+
+    /**
+     * Quiz over content that is still arriving through a ContentStreamSession
+     */
+    public static GenerateQuizFragment newInstanceForStream(String contentStreamId) {
+        GenerateQuizFragment fragment = new GenerateQuizFragment();
+        Bundle args = new Bundle();
+        args.putString(ARG_CONTENT_STREAM_ID, contentStreamId);
         fragment.setArguments(args);
         return fragment;
     }
@@ -104,14 +207,34 @@ public class GenerateQuizFragment extends Fragment {
         super.onCreate(savedInstanceState);
         if (getArguments() != null) {
             inputContent = getArguments().getString(ARG_EXTRACTED_TEXT);
+            bypassCache = getArguments().getBoolean(ARG_BYPASS_CACHE, false);
+
+            String streamId = getArguments().getString(ARG_CONTENT_STREAM_ID);
+            if (streamId != null) {
+                contentStream = ContentStreamSession.get(streamId);
+                // Evicted, or the process was restarted while the content was being extracted
+                contentStreamLost = contentStream == null;
+            }
         }
 
-        String apiKey = BuildConfig.API_KEY;
-        quizService = new QuizNetworkService(apiKey, getContext());
+        String handedOffId = savedInstanceState != null ? savedInstanceState.getString(STATE_GENERATION_ID) : null;
+        generation = handedOffId != null ? handoffs.remove(handedOffId) : null;
+        if (generation != null) {
+            // Pending lookups and the speculation live on the run's own service instances
+            Log.d(TAG, "🔄 Rejoining quiz generation after configuration change");
+            quizService = generation.service;
+            speculator = generation.speculator;
+            currentQuizSettings = generation.settings;
+            isGenerating = true;
+        } else {
+            String apiKey = BuildConfig.API_KEY;
+            quizService = new QuizNetworkService(apiKey, requireContext().getApplicationContext());
+            speculator = new SpeculativeQuizGenerator(quizService);
+        }
 
         // Initialize the YouTube services
-        transcriptService = new YouTubeTranscriptService();
-        fallbackService = new YouTubeFallbackService();
+        transcriptService = new YouTubeTranscriptService(getContext());
+        fallbackService = new YouTubeFallbackService(getContext());
     }
 
     @Nullable
@@ -127,7 +250,13 @@ public class GenerateQuizFragment extends Fragment {
         // Setup back press handler
         setupBackPressHandler();
 
-        if (inputContent != null && !inputContent.isEmpty()) {
+        if (generation != null && isGenerating) {
+            showLoadingDialog();
+            streamedTopic = generation.topic;
+            generation.attach(this);
+        } else if (contentStreamLost) {
+            handleError(getString(R.string.error_loading));
+        } else if (contentStream != null || (inputContent != null && !inputContent.isEmpty())) {
             // Show quiz customizer dialog first
             showQuizCustomizer();
         }
@@ -152,6 +281,7 @@ public class GenerateQuizFragment extends Fragment {
                                     () -> {
                                         dismissLoadingDialog();
                                         isGenerating = false;
+                                        cancelGeneration();
                                         setEnabled(false);
                                         requireActivity().getOnBackPressedDispatcher().onBackPressed();
                                     },
@@ -182,13 +312,24 @@ public class GenerateQuizFragment extends Fragment {
             String currentLanguage = LanguageManager.getInstance(requireContext()).getCurrentLanguage();
             Log.d(TAG, "🌍 Current language: " + currentLanguage);
 
-            DialogHelper.showQuizCustomizerDialog(requireContext(), currentLanguage,
+            QuizSettings lastUsed = SpeculativeQuizGenerator.getLastUsedSettings(requireContext(), currentLanguage);
+            // Most users keep the preselected settings, so start on them while the dialog is open.
+            // YouTube links still need their transcript first and are generated after confirming.
+            // Streamed content is not complete yet, so there is nothing to speculate on either.
+            if (contentStream == null && !isYouTubeUrl(inputContent)) {
+                speculator.start(inputContent, lastUsed, bypassCache);
+            }
+
+            DialogHelper.showQuizCustomizerDialog(requireContext(), currentLanguage, lastUsed,
                     new DialogHelper.QuizCustomizerListener() {
                         @Override
                         public void onSettingsConfirmed(QuizSettings settings) {
                             Log.d(TAG, "✅ Quiz settings confirmed: " + settings.getNumberOfQuestions() + " questions, " +
                                     settings.getDifficulty() + " difficulty, coding=" + settings.isIncludeCodingQuestions());
                             currentQuizSettings = settings;
+                            if (getContext() != null) {
+                                SpeculativeQuizGenerator.saveLastUsedSettings(getContext(), settings);
+                            }
                             startProcess();
                         }
 
@@ -213,7 +354,29 @@ public class GenerateQuizFragment extends Fragment {
     private void startProcess() {
         Log.d(TAG, "🚀 Starting process...");
         isGenerating = true;
+        showLoadingDialog();
 
+        generation = new Generation(quizService, speculator, currentQuizSettings, bypassCache);
+        generation.attach(this);
+
+        if (contentStream != null) {
+            Log.d(TAG, "📚 Content still arriving (" + contentStream.getSections().size() + "/"
+                    + contentStream.getExpectedSections() + " sections). Generating as it comes...");
+            generation.generate(contentStream);
+        } else if (isYouTubeUrl(inputContent)) {
+            // 1. Check if input is a YouTube URL
+            Log.d(TAG, "🔗 YouTube URL detected. Attempting to fetch content...");
+            fetchYouTubeContent(inputContent, generation);
+        } else {
+            // 2. It's just text, send directly to AI
+            Log.d(TAG, "📝 Raw text detected. Sending to AI...");
+            if (!speculator.claim(inputContent, currentQuizSettings, generation)) {
+                generation.generate(inputContent);
+            }
+        }
+    }
+
+    private void showLoadingDialog() {
         if (getContext() != null) {
             loadingDialog = DialogHelper.createAnimatedLoadingDialog(
                     getContext(),
@@ -221,16 +384,6 @@ public class GenerateQuizFragment extends Fragment {
                     getString(R.string.curating_topic));
             loadingDialog.show();
         }
-
-        // 1. Check if input is a YouTube URL
-        if (isYouTubeUrl(inputContent)) {
-            Log.d(TAG, "🔗 YouTube URL detected. Attempting to fetch content...");
-            fetchYouTubeContent(inputContent);
-        } else {
-            // 2. It's just text, send directly to AI
-            Log.d(TAG, "📝 Raw text detected. Sending to AI...");
-            quizService.generateQuizWithSettings(inputContent, currentQuizSettings, quizCallback);
-        }
     }
 
     private boolean isYouTubeUrl(String text) {
@@ -238,38 +391,40 @@ public class GenerateQuizFragment extends Fragment {
     }
 
     // STEP 1: Try to get Transcript
-    private void fetchYouTubeContent(String videoUrl) {
+    // The run may have moved to a recreated fragment by the time these callbacks arrive,
+    // so they report to the run rather than to this instance
+    private void fetchYouTubeContent(String videoUrl, Generation run) {
         transcriptService.getTranscript(videoUrl, new YouTubeTranscriptService.TranscriptCallback() {
             @Override
             public void onSuccess(String transcript) {
                 Log.d(TAG, "✅ Transcript fetched (" + transcript.length() + " chars). Generating quiz...");
-                // Send transcript to AI with settings
-                quizService.generateQuizWithSettings(transcript, currentQuizSettings, quizCallback);
+                // Transcript callbacks arrive on a network thread, the quiz service expects the main thread
+                mainHandler.post(() -> run.generate(transcript));
             }
 
             @Override
             public void onError(String error) {
                 Log.w(TAG, "⚠️ Transcript failed: " + error + ". Trying fallback metadata...");
                 // Transcript failed, try Fallback
-                fetchFallbackMetadata(videoUrl);
+                fetchFallbackMetadata(videoUrl, run);
             }
         });
     }
 
     // STEP 2: Try to get Metadata (Description/Tags)
-    private void fetchFallbackMetadata(String videoUrl) {
+    private void fetchFallbackMetadata(String videoUrl, Generation run) {
         fallbackService.getVideoMetadata(videoUrl, new YouTubeFallbackService.MetadataCallback() {
             @Override
             public void onSuccess(String metadata) {
                 Log.d(TAG, "✅ Metadata fetched. Generating quiz from description...");
                 // Send description/tags to AI with settings
-                quizService.generateQuizWithSettings(metadata, currentQuizSettings, quizCallback);
+                run.generate(metadata);
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "❌ Fallback failed: " + error);
-                handleError(getString(R.string.error_loading));
+                run.fail();
             }
         });
     }
@@ -288,6 +443,11 @@ public class GenerateQuizFragment extends Fragment {
         });
     }
 
+    private void cancelGeneration() {
+        if (generation != null) generation.cancel();
+        speculator.discard();
+    }
+
     private void dismissLoadingDialog() {
         if (loadingDialog != null && loadingDialog.isShowing()) {
             try {
@@ -341,7 +501,7 @@ public class GenerateQuizFragment extends Fragment {
                     intent.putExtra("QUIZ_DATA", (ArrayList) questions);
                     intent.putExtra("QUIZ_ID", quizId);
                     intent.putExtra("QUIZ_TITLE", title);
-                    intent.putExtra("QUIZ_SOURCE", inputContent);
+                    intent.putExtra("QUIZ_SOURCE", sourceContent());
 
                     startActivity(intent);
 
@@ -353,9 +513,234 @@ public class GenerateQuizFragment extends Fragment {
                 });
     }
 
+    /**
+     * Open QuizActivity on the questions streamed so far
+     */
+    private void openStreamingQuiz() {
+        dismissLoadingDialog();
+
+        String title = streamedTopic != null && !streamedTopic.isEmpty() ? streamedTopic : getString(R.string.quiz_title);
+
+        Intent intent = new Intent(getActivity(), QuizActivity.class);
+        intent.putExtra("QUIZ_STREAM_ID", streamSession.getId());
+        intent.putExtra("QUIZ_TITLE", title);
+        intent.putExtra("QUIZ_SOURCE", sourceContent());
+
+        startActivity(intent);
+
+        if (getActivity() != null) getActivity().finish();
+    }
+
+    /**
+     * What the quiz was made from, kept for "regenerate"; streamed content as received so far
+     */
+    private String sourceContent() {
+        return contentStream != null ? contentStream.getText() : inputContent;
+    }
+
+    /**
+     * Save the finished streamed quiz and tell the running QuizActivity its id.
+     * Runs after the host activity may already be gone, so it must not touch the UI.
+     */
+    private void saveStreamedQuiz(List<QuizQuestion> questions, String aiTopic) {
+        QuizStreamSession session = streamSession;
+
+        List<QuizQuestion> cleanQuestions = new ArrayList<>();
+        float totalTime = 0;
+        for (QuizQuestion q : questions) {
+            QuizQuestion copy = copyQuestion(q);
+            if (copy.timeLimit <= 0) copy.timeLimit = 1.0f;
+            totalTime += copy.timeLimit;
+            cleanQuestions.add(copy);
+        }
+
+        String title = (aiTopic != null && !aiTopic.isEmpty()) ? aiTopic : generateQuizTitle(cleanQuestions);
+        Log.d(TAG, "💾 Saving streamed quiz to Firestore: " + title);
+
+        DocumentReference newQuizRef = FirebaseFirestore.getInstance().collection("quizzes").document();
+        String quizId = newQuizRef.getId();
+        Quiz newQuiz = new Quiz(quizId, title, cleanQuestions.size(), totalTime, "", cleanQuestions);
+
+        newQuizRef.set(newQuiz)
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "✅ Streamed quiz saved to Firestore");
+                    session.complete(quizId, title);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "❌ Firestore save failed", e);
+                    // Quiz is still playable, attempts just won't be linked to a saved quiz
+                    session.complete(null, title);
+                });
+    }
+
+    private QuizQuestion copyQuestion(QuizQuestion question) {
+        return gson.fromJson(gson.toJson(question), QuizQuestion.class);
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
         dismissLoadingDialog();
     }
+
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (generation != null && isGenerating && streamSession == null) {
+            outState.putString(STATE_GENERATION_ID, generation.id);
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        boolean changingConfig = getActivity() != null && getActivity().isChangingConfigurations();
+        if (changingConfig && isGenerating && streamSession == null && generation != null) {
+            // The recreated fragment takes the run over in onCreate
+            generation.detach();
+            handoffs.put(generation.id, generation);
+            return;
+        }
+
+        // Once QuizActivity owns the stream the remaining questions are still needed
+        if (isGenerating && streamSession == null) {
+            cancelGeneration();
+        } else if (!isGenerating) {
+            // Customizer was dismissed (or will be shown again by the recreated fragment),
+            // nobody will claim this speculative run
+            speculator.discard();
+        }
+    }
+
+    /**
+     * One generation run, which outlives the fragment across configuration changes.
+     * Events go to the fragment that currently owns the run and are buffered while there is none.
+     * Main thread only.
+     */
+    private static class Generation implements QuizNetworkService.QuizStreamCallback {
+        private final String id = UUID.randomUUID().toString();
+        private final QuizNetworkService service;
+        private final SpeculativeQuizGenerator speculator;
+        private final QuizSettings settings;
+        private final boolean bypassCache;
+
+        private GenerateQuizFragment owner;
+        private ContentStreamSession stream;
+        private final List<Consumer<GenerateQuizFragment>> pending = new ArrayList<>();
+        private String topic;
+        private boolean stopped = false;
+
+        Generation(QuizNetworkService service, SpeculativeQuizGenerator speculator,
+                   QuizSettings settings, boolean bypassCache) {
+            this.service = service;
+            this.speculator = speculator;
+            this.settings = settings;
+            this.bypassCache = bypassCache;
+        }
+
+        void attach(GenerateQuizFragment fragment) {
+            owner = fragment;
+            List<Consumer<GenerateQuizFragment>> missed = new ArrayList<>(pending);
+            pending.clear();
+            for (Consumer<GenerateQuizFragment> event : missed) event.accept(fragment);
+        }
+
+        void detach() {
+            owner = null;
+        }
+
+        void generate(String input) {
+            if (!stopped) service.generateQuizStreaming(input, settings, bypassCache, this);
+        }
+
+        /**
+         * Generate while the content is still arriving; sections received so far are fed at once
+         */
+        void generate(ContentStreamSession content) {
+            if (stopped) return;
+            stream = content;
+            ChunkedQuizGenerator.Feed feed = service.generateQuizFromSections(content.getExpectedSections(), settings, this);
+            for (String section : content.getSections()) feed.add(section);
+            if (content.isFinished()) {
+                if (content.getError() != null) feed.fail(content.getError());
+                else feed.finish();
+                return;
+            }
+            content.setListener(new ContentStreamSession.Listener() {
+                @Override
+                public void onSectionAdded(String section) {
+                    feed.add(section);
+                }
+
+                @Override
+                public void onFinished() {
+                    feed.finish();
+                }
+
+                @Override
+                public void onFailed(String error) {
+                    feed.fail(error);
+                }
+            });
+        }
+
+        /**
+         * Nothing to generate from (no transcript and no metadata)
+         */
+        void fail() {
+            deliver(f -> f.handleError(f.getString(R.string.error_loading)));
+        }
+
+        void cancel() {
+            handoffs.remove(id);
+            stop();
+        }
+
+        /**
+         * Release the network work without touching the handoff map
+         */
+        private void stop() {
+            if (stopped) return;
+            stopped = true;
+            owner = null;
+            pending.clear();
+            service.cancel(this);
+            speculator.discard();
+            // Extraction still running only for this quiz is stopped too
+            if (stream != null) stream.cancel();
+        }
+
+        private void deliver(Consumer<GenerateQuizFragment> event) {
+            if (stopped) return;
+            if (owner != null) event.accept(owner);
+            else pending.add(event);
+        }
+
+        @Override
+        public void onTopic(String topic) {
+            this.topic = topic;
+            deliver(f -> f.quizCallback.onTopic(topic));
+        }
+
+        @Override
+        public void onQuestion(QuizQuestion question) {
+            deliver(f -> f.quizCallback.onQuestion(question));
+        }
+
+        @Override
+        public void onProgress(int completedChunks, int totalChunks) {
+            deliver(f -> f.quizCallback.onProgress(completedChunks, totalChunks));
+        }
+
+        @Override
+        public void onSuccess(List<QuizQuestion> quizQuestions, String topic) {
+            if (stream != null) ContentStreamSession.remove(stream.getId());
+            deliver(f -> f.quizCallback.onSuccess(quizQuestions, topic));
+        }
+
+        @Override
+        public void onError(String error) {
+            deliver(f -> f.quizCallback.onError(error));
+        }
+    }
 }
\ No newline at end of file
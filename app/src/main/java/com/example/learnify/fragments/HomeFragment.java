@@ -8,11 +8,14 @@ import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
 import android.provider.MediaStore;
 import android.util. Log;
 import android.view. LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import androidx.activity.result.ActivityResultLauncher;
@@ -28,11 +31,16 @@ import androidx.recyclerview.widget.LinearSnapHelper;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx. recyclerview.widget.SnapHelper;
 
+import com.example.learnify.helpers.ContentStreamSession;
 import com.example.learnify.helpers.CustomToast;
 import com.example.learnify.helpers.DialogHelper;
 import com.example.learnify.activities.HistoryActivity;
 import com.example.learnify.adapters.HistoryAdapter;
+import com.example.learnify.services.DocxStreamExtractor;
+import com.example.learnify.services.ExtractionCache;
+import com.example.learnify.services.ExtractionJobScheduler;
 import com.example.learnify.services.ImageTextExtractor;
+import com.example.learnify.services.PdfPageExtractor;
 import com.example.learnify.modelclass.QuizAttempt;
 import com.example.learnify.repository.QuizAttemptRepository;
 import com.example.learnify.R;
@@ -40,11 +48,7 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.tom_roush.pdfbox.android.PDFBoxResourceLoader;
-import com.tom_roush.pdfbox.pdmodel.PDDocument;
-import com.tom_roush.pdfbox.text.PDFTextStripper;
 
-import org.apache.poi.xwpf. extractor.XWPFWordExtractor;
-import org.apache. poi.xwpf.usermodel.XWPFDocument;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -54,6 +58,7 @@ import java. text.SimpleDateFormat;
 import java.util. ArrayList;
 import java.util. Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util. Locale;
 
 public class HomeFragment extends Fragment {
@@ -67,6 +72,7 @@ public class HomeFragment extends Fragment {
     private CardView profileCard;
     private TextView viewMoreButton;
     private TextView profileNameView;
+    private ProgressBar fileProgressBar;
     private ActivityResultLauncher<String[]> filePickerLauncher;
 
     // Camera and Gallery launchers
@@ -88,6 +94,12 @@ public class HomeFragment extends Fragment {
     // OCR Text Extractor
     private ImageTextExtractor imageTextExtractor;
 
+    // File extraction, at most one at a time and cancelled when the fragment goes away
+    private final ExtractionJobScheduler extractionJobs = new ExtractionJobScheduler();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Sections of the PDF being read, for a quiz that may start before the last page
+    private ContentStreamSession pdfStream;
+
     @Override
     public void onAttach(@NonNull Context context) {
         super.onAttach(context);
@@ -186,6 +198,7 @@ public class HomeFragment extends Fragment {
         profileCard = view.findViewById(R.id.profile_card);
         viewMoreButton = view.findViewById(R.id.view_more_button);
         profileNameView = view.findViewById(R.id.profile_name);
+        fileProgressBar = view.findViewById(R.id.file_progress_bar);
         rvRecentHistory = view.findViewById(R.id. history_recycler_view);
         emptyHistoryCard = view. findViewById(R.id.empty_history_view);
 
@@ -437,7 +450,7 @@ public class HomeFragment extends Fragment {
     private void extractAndProcessFile(Uri uri) {
         Log.d(TAG, "🔍 extractAndProcessFile() called with uri: " + uri);
         
-        // Store context reference BEFORE starting thread
+        // Store context reference BEFORE starting the job
         Context context = getContext();
         
         if (context == null) {
@@ -448,109 +461,222 @@ public class HomeFragment extends Fragment {
         Log.d(TAG, "✅ Context is valid");
         CustomToast.info(context, getString(R.string.msg_reading_file));
 
-        new Thread(() -> {
-            try {
-                Log.d(TAG, "📄 Starting file extraction in background thread");
-                String text = null;
-                String type = context.getContentResolver().getType(uri);
-                Log.d(TAG, "📄 File MIME type: " + type);
+        ContentStreamSession stream = ContentStreamSession.create();
+        AtomicBoolean handedOff = new AtomicBoolean(false);
+        pdfStream = stream;
+        showFileProgress(0, 0);
 
-                try {
-                    if (type != null && type.equals("application/pdf")) {
-                        Log.d(TAG, "📄 Extracting PDF file");
-                        text = extractPdf(uri, context);
-                    } else if (type != null && (type.contains("wordprocessingml") || type.contains("msword"))) {
-                        Log.d(TAG, "📄 Extracting DOCX file");
-                        text = extractDocx(uri, context);
-                    } else if (type != null && type.startsWith("text/")) {
-                        Log.d(TAG, "📄 Extracting TXT file");
-                        text = extractTxt(uri, context);
-                    } else {
-                        Log.d(TAG, "📄 Unknown type, trying PDF first");
-                        try {
-                            text = extractPdf(uri, context);
-                        } catch (Exception e) {
-                            Log.d(TAG, "📄 PDF failed, trying TXT");
-                            text = extractTxt(uri, context);
-                        }
+        // A newer pick replaces the file still being read
+        ExtractionJobScheduler.Job extraction = extractionJobs.submit(String.valueOf(uri.getLastPathSegment()), job -> {
+            Log.d(TAG, "📄 Starting file extraction in background");
+            String type = context.getContentResolver().getType(uri);
+            Log.d(TAG, "📄 File MIME type: " + type);
+
+            // Same bytes as a file read before: reuse its text
+            ExtractionCache cache = ExtractionCache.getInstance(context);
+            String cacheKey = cache.keyFor(uri);
+            String text = cache.get(cacheKey);
+            if (text != null || job.isCancelled()) return text;
+
+            try {
+                if (type != null && type.equals("application/pdf")) {
+                    Log.d(TAG, "📄 Extracting PDF file");
+                    text = extractPdf(uri, context, job, stream, handedOff);
+                } else if (type != null && (type.contains("wordprocessingml") || type.contains("msword"))) {
+                    Log.d(TAG, "📄 Extracting DOCX file");
+                    text = extractDocx(uri, context, job);
+                } else if (type != null && type.startsWith("text/")) {
+                    Log.d(TAG, "📄 Extracting TXT file");
+                    text = extractTxt(uri, context, job);
+                } else {
+                    Log.d(TAG, "📄 Unknown type, trying PDF first");
+                    try {
+                        text = extractPdf(uri, context, job, stream, handedOff);
+                    } catch (Exception e) {
+                        // A quiz already running on the first pages has to see the failure
+                        if (handedOff.get()) throw e;
+                        Log.d(TAG, "📄 PDF failed, trying TXT");
+                        text = extractTxt(uri, context, job);
                     }
-                } catch (Exception extractionError) {
-                    Log.e(TAG, "❌ File extraction method failed", extractionError);
-                    throw extractionError;
                 }
+            } catch (Exception extractionError) {
+                Log.e(TAG, "❌ File extraction method failed", extractionError);
+                throw extractionError;
+            }
 
-                final String extractedText = text;
-                Log.d(TAG, "📝 Extraction complete. Text length: " + (extractedText != null ? extractedText.length() : "null"));
+            // Only complete text is cached; a run stopped part-way returns null
+            if (text != null && !job.isCancelled()) cache.put(cacheKey, text);
+            return text;
+        }, new ExtractionJobScheduler.Listener() {
+            @Override
+            public void onProgress(int done, int total) {
+                Log.d(TAG, "📄 Reading " + done + "/" + total);
+                showFileProgress(done, total);
+            }
 
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Context uiContext = getContext();
-                        if (uiContext == null) {
-                            Log.e(TAG, "❌ UI Context is null after extraction");
-                            return;
-                        }
-                        
-                        if (extractedText != null && !extractedText.isEmpty()) {
-                            Log.d(TAG, "✅ Launching quiz fragment with extracted text");
-                            launchGenerateQuizFragment(extractedText);
-                        } else {
-                            Log.e(TAG, "❌ Extracted text is empty");
-                            CustomToast.warning(uiContext, getString(R.string.msg_could_not_read_file));
-                        }
-                    });
+            @Override
+            public void onComplete(String extractedText, ExtractionJobScheduler.JobMetrics metrics) {
+                Log.d(TAG, "📝 Extraction complete. Text length: " + (extractedText != null ? extractedText.length() : "null")
+                        + " (" + metrics + ")");
+                hideFileProgress(stream);
+                if (handedOff.get()) {
+                    // The quiz screen is already open and got every section through the stream
+                    stream.finish();
+                    return;
+                }
+                ContentStreamSession.remove(stream.getId());
+                Context uiContext = getContext();
+                if (uiContext == null) {
+                    Log.e(TAG, "❌ UI Context is null after extraction");
+                    return;
+                }
+
+                if (extractedText != null && !extractedText.isEmpty()) {
+                    Log.d(TAG, "✅ Launching quiz fragment with extracted text");
+                    launchGenerateQuizFragment(extractedText);
                 } else {
-                    Log.e(TAG, "❌ Activity is null after extraction");
+                    Log.e(TAG, "❌ Extracted text is empty");
+                    CustomToast.warning(uiContext, getString(R.string.msg_could_not_read_file));
                 }
+            }
 
-            } catch (Exception e) {
+            @Override
+            public void onError(Exception e) {
                 Log.e(TAG, "❌ FATAL File Extraction Error", e);
-                e.printStackTrace();
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Context uiContext = getContext();
-                        if (uiContext != null) {
-                            CustomToast.error(uiContext, getString(R.string.msg_error_reading_file, e.getMessage()));
-                        }
-                    });
+                hideFileProgress(stream);
+                if (handedOff.get()) {
+                    stream.fail(e.getMessage());
+                    return;
+                }
+                ContentStreamSession.remove(stream.getId());
+                Context uiContext = getContext();
+                if (uiContext != null) {
+                    CustomToast.error(uiContext, getString(R.string.msg_error_reading_file, e.getMessage()));
                 }
             }
-        }).start();
+        });
+
+        // Results of a cancelled job are never delivered, a quiz waiting on it must not hang
+        extraction.onCancel(() -> mainHandler.post(() -> {
+            hideFileProgress(stream);
+            stream.fail("File reading was cancelled");
+            if (!handedOff.get()) ContentStreamSession.remove(stream.getId());
+        }));
+        // Going back from the quiz screen cancels the quiz, and with it the rest of the file
+        stream.setOnCancel(extraction::cancel);
+    }
+
+    /**
+     * Reading progress under the upload button; indeterminate while total is unknown (0)
+     */
+    private void showFileProgress(int done, int total) {
+        if (fileProgressBar == null) return;
+        fileProgressBar.setVisibility(View.VISIBLE);
+        fileProgressBar.setIndeterminate(total <= 0);
+        if (total > 0) {
+            fileProgressBar.setMax(total);
+            fileProgressBar.setProgress(done);
+        }
+    }
+
+    /**
+     * Hide the progress of the file read through stream, unless a newer pick already replaced it
+     */
+    private void hideFileProgress(ContentStreamSession stream) {
+        if (fileProgressBar != null && pdfStream == stream) fileProgressBar.setVisibility(View.GONE);
     }
 
     private void launchGenerateQuizFragment(String text) {
-        GenerateQuizFragment fragment = GenerateQuizFragment.newInstance(text);
+        launchGenerateQuizFragment(GenerateQuizFragment.newInstance(text));
+    }
+
+    private void launchGenerateQuizFragment(GenerateQuizFragment fragment) {
         getParentFragmentManager().beginTransaction()
                 .replace(R.id.fragment_container, fragment)
                 . addToBackStack(null)
                 .commit();
     }
 
-    private String extractPdf(Uri uri, Context context) throws Exception {
-        InputStream is = context.getContentResolver().openInputStream(uri);
-        PDDocument doc = PDDocument.load(is);
-        PDFTextStripper stripper = new PDFTextStripper();
-        String text = stripper.getText(doc);
-        doc.close();
-        return text;
+    /**
+     * Pages are read one at a time. Once there is enough text the quiz screen opens on stream and
+     * the remaining sections follow as they are read; the whole text is still returned for the cache.
+     */
+    private String extractPdf(Uri uri, Context context, ExtractionJobScheduler.Job job,
+                              ContentStreamSession stream, AtomicBoolean handedOff) throws Exception {
+        PdfPageExtractor extractor = new PdfPageExtractor(context);
+        job.onCancel(extractor::cancel);
+        return extractor.extract(uri, new PdfPageExtractor.Listener() {
+            // Extraction thread only; the stream itself is only touched on the main thread
+            private final List<String> sections = new ArrayList<>();
+            private int sectionCount = 0;
+
+            @Override
+            public void onStart(int pageCount, int sectionCount) {
+                this.sectionCount = sectionCount;
+            }
+
+            @Override
+            public void onSection(String title, int firstPage, int lastPage, String text) {
+                Log.d(TAG, "📑 " + title + " (pages " + firstPage + "-" + lastPage + "): " + text.length() + " chars");
+                if (handedOff.get()) {
+                    mainHandler.post(() -> stream.addSection(text));
+                } else {
+                    sections.add(text);
+                }
+            }
+
+            @Override
+            public void onProgress(int pagesDone, int pageCount) {
+                if (pagesDone % 10 == 0 || pagesDone == pageCount) {
+                    job.reportProgress(pagesDone, pageCount);
+                }
+            }
+
+            @Override
+            public void onEnoughContent() {
+                handedOff.set(true);
+                List<String> first = new ArrayList<>(sections);
+                int expected = sectionCount;
+                sections.clear();
+                mainHandler.post(() -> {
+                    if (job.isCancelled()) return;
+                    stream.setExpectedSections(expected);
+                    for (String section : first) stream.addSection(section);
+                    if (!isAdded()) {
+                        job.cancel();
+                        return;
+                    }
+                    Log.d(TAG, "⏩ Starting the quiz on " + first.size() + "/" + expected + " sections");
+                    launchGenerateQuizFragment(GenerateQuizFragment.newInstanceForStream(stream.getId()));
+                });
+            }
+        });
     }
 
-    private String extractDocx(Uri uri, Context context) throws Exception {
-        InputStream is = context.getContentResolver().openInputStream(uri);
-        XWPFDocument doc = new XWPFDocument(is);
-        XWPFWordExtractor extractor = new XWPFWordExtractor(doc);
-        String text = extractor.getText();
-        extractor.close();
+    /**
+     * The body is one zip entry read in a single pass, so progress is only start and finish
+     */
+    private String extractDocx(Uri uri, Context context, ExtractionJobScheduler.Job job) throws Exception {
+        job.reportProgress(0, 1);
+        String text = new DocxStreamExtractor(context).extract(uri);
+        job.reportProgress(1, 1);
         return text;
     }
 
-    private String extractTxt(Uri uri, Context context) throws Exception {
+    /**
+     * Text of the file, or null if the job was cancelled before the end
+     */
+    private String extractTxt(Uri uri, Context context, ExtractionJobScheduler.Job job) throws Exception {
+        job.reportProgress(0, 1);
         InputStream is = context.getContentResolver().openInputStream(uri);
         BufferedReader r = new BufferedReader(new InputStreamReader(is));
         StringBuilder sb = new StringBuilder();
         String line;
         while ((line = r.readLine()) != null) {
+            if (job.isCancelled()) return null;
             sb.append(line). append("\n");
         }
+        job.reportProgress(1, 1);
         return sb.toString();
     }
 
@@ -586,7 +712,30 @@ public class HomeFragment extends Fragment {
                 return;
             }
         }
-        
+
+        // OCR only runs for images not scanned before
+        ExtractionCache.getInstance(context).lookup(imageUri, (cacheKey, cachedText) -> {
+            if (getActivity() == null) return;
+            getActivity().runOnUiThread(() -> {
+                Context uiContext = getContext();
+                if (uiContext == null) return;
+                if (cachedText != null) {
+                    Log.d(TAG, "⚡ Reusing text from an earlier scan of this image");
+                    CustomToast.success(uiContext, getString(R.string.msg_text_extracted));
+                    launchGenerateQuizFragment(cachedText);
+                } else {
+                    runOcr(imageUri, cacheKey, uiContext);
+                }
+            });
+        });
+    }
+
+    private void runOcr(Uri imageUri, String cacheKey, Context context) {
+        if (imageTextExtractor == null) {
+            Log.e(TAG, "❌ ImageTextExtractor was released");
+            return;
+        }
+
         // Add try-catch around the extraction
         try {
             imageTextExtractor.extractTextFromUri(imageUri, new ImageTextExtractor.ExtractionCallback() {
@@ -608,6 +757,7 @@ public class HomeFragment extends Fragment {
                                 return;
                             }
 
+                            ExtractionCache.getInstance(uiContext).put(cacheKey, extractedText);
                             CustomToast.success(uiContext, getString(R.string.msg_text_extracted));
                             launchGenerateQuizFragment(extractedText);
                         });
@@ -666,5 +816,10 @@ public class HomeFragment extends Fragment {
             imageTextExtractor.close();
             imageTextExtractor = null;
         }
+        // A quiz running on a PDF that is still being read owns that extraction
+        if (pdfStream == null || !pdfStream.isClaimed()) {
+            extractionJobs.cancelAll();
+        }
+        Log.d(TAG, "📊 Extraction jobs: " + extractionJobs.getStats());
     }
 }
\ No newline at end of file
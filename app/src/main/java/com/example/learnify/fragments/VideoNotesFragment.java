@@ -24,7 +24,9 @@ import android.text.style.UnderlineSpan;
 import android.util.Base64;
 import android.util.Log;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.widget.EditText;
 import android.widget.FrameLayout;
@@ -41,6 +43,7 @@ import com.example.learnify.helpers.CustomToast;
 import com.example.learnify.managers.GoogleDriveManager;
 import com.example.learnify.R;
 import com.example.learnify.repository.VideoNotesRepository;
+import com.example.learnify.modelclass.TimedTranscript;
 import com.example.learnify.services.YouTubeTranscriptService;
 import com.pierfrancescosoffritti.androidyoutubeplayer.core.player.PlayerConstants;
 import com.pierfrancescosoffritti.androidyoutubeplayer.core.player.YouTubePlayer;
@@ -66,6 +69,8 @@ public class VideoNotesFragment extends Fragment {
     private YouTubePlayer youTubePlayer;
     private String videoUrl;
     private String passedTranscript;
+    private TimedTranscript timedTranscript;
+    private int lastSyncedSegment = -1;
     private View loadingOverlay;
     private FrameLayout videoPlayerContainer;
 
@@ -129,7 +134,7 @@ public class VideoNotesFragment extends Fragment {
                 + ", TRANSCRIPT_DATA=" + (passedTranscript == null ? "null" : "len=" + passedTranscript.length()));
 
         notesRepository = new VideoNotesRepository();
-        transcriptService = new YouTubeTranscriptService();
+        transcriptService = new YouTubeTranscriptService(requireContext());
         driveManager = new GoogleDriveManager(requireContext());
 
         requestPermissionLauncher = registerForActivityResult(
@@ -183,6 +188,7 @@ public class VideoNotesFragment extends Fragment {
         setupVideoPlayer();
         setupFormattingButtons();
         setupTextWatcher();
+        setupSeekOnTap();
         loadSavedNotes();
     }
 
@@ -229,6 +235,11 @@ public class VideoNotesFragment extends Fragment {
                     if (loadingOverlay != null) loadingOverlay.setVisibility(View.GONE);
                 }
 
+                @Override
+                public void onCurrentSecond(@NonNull YouTubePlayer player, float second) {
+                    syncNotesToTime(second);
+                }
+
                 @Override
                 public void onError(@NonNull YouTubePlayer player, @NonNull PlayerConstants.PlayerError error) {
                     // Handle Error 15 (Restricted Content)
@@ -278,6 +289,7 @@ public class VideoNotesFragment extends Fragment {
             if (notesEditText.getText().toString().trim().isEmpty()) {
                 notesEditText.setText(passedTranscript);
                 CustomToast.success(getContext(), "Notes auto-filled from transcript!");
+                loadTranscriptTiming();
             }
             return;
         }
@@ -341,6 +353,7 @@ public class VideoNotesFragment extends Fragment {
                         if (notesEditText.getText().toString().trim().isEmpty()) {
                             notesEditText.setText(transcript);
                             CustomToast.success(getContext(), "Transcript loaded automatically");
+                            loadTranscriptTiming();
                         } else {
                             Log.d(TAG, "Notes already filled; not overwriting with transcript");
                         }
@@ -363,6 +376,73 @@ public class VideoNotesFragment extends Fragment {
         });
     }
 
+    private void loadTranscriptTiming() {
+        if (videoUrl == null || videoUrl.isEmpty()) return;
+
+        transcriptService.getTimedTranscript(videoUrl, new YouTubeTranscriptService.TimedTranscriptCallback() {
+            @Override
+            public void onSuccess(TimedTranscript transcript) {
+                Log.d(TAG, "Transcript timing loaded, segments=" + transcript.size());
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        timedTranscript = transcript;
+                        lastSyncedSegment = -1;
+                    });
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.d(TAG, "No transcript timing: " + error);
+            }
+        });
+    }
+
+    /**
+     * Scroll the notes to the segment being played. Only while the notes are still the untouched
+     * transcript, otherwise the offsets no longer line up with the text.
+     */
+    private void syncNotesToTime(float second) {
+        TimedTranscript timed = timedTranscript;
+        if (timed == null || notesEditText == null || notesEditText.hasFocus()) return;
+        if (notesEditText.length() != timed.getText().length()) return;
+
+        int segment = timed.segmentAt((long) (second * 1000));
+        if (segment < 0 || segment == lastSyncedSegment) return;
+        lastSyncedSegment = segment;
+        notesEditText.bringPointIntoView(timed.getTextStart(segment));
+    }
+
+    /**
+     * A tap on the transcript in the notes jumps the player to that line. Long presses and drags
+     * are left to the EditText for selection and scrolling.
+     */
+    private void setupSeekOnTap() {
+        notesEditText.setOnTouchListener((v, event) -> {
+            if (event.getAction() == MotionEvent.ACTION_UP
+                    && event.getEventTime() - event.getDownTime() < ViewConfiguration.getLongPressTimeout()) {
+                seekToOffset(notesEditText.getOffsetForPosition(event.getX(), event.getY()));
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Seek the player to the segment at offset, under the same untouched-transcript rule as
+     * syncNotesToTime
+     */
+    private void seekToOffset(int offset) {
+        TimedTranscript timed = timedTranscript;
+        if (timed == null || youTubePlayer == null || offset < 0) return;
+        if (notesEditText.length() != timed.getText().length()) return;
+
+        int segment = timed.segmentAtOffset(offset);
+        if (segment < 0) return;
+        Log.d(TAG, "⏩ Seeking to segment " + segment + " at " + timed.getStartMs(segment) + " ms");
+        lastSyncedSegment = segment;
+        youTubePlayer.seekTo(timed.getStartMs(segment) / 1000f);
+    }
+
     // --------------------- FORMATTING LOGIC ---------------------------------
 
     private void setupFormattingButtons() {
@@ -1,9 +1,13 @@
 package com.example.learnify.fragments;
 
+import android.content.ClipDescription;
+import android.content.ClipboardManager;
 import android.content.Context;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -15,15 +19,20 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
+import com.example.learnify.helpers.ContentStreamSession;
 import com.example.learnify.helpers.CustomToast;
 import com.example.learnify.R;
+import com.example.learnify.services.BatchTranscriptIngestor;
 import com.example.learnify.services.YouTubeTranscriptService;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.button.MaterialButton;
 
+import java.util.List;
+
 public class linkFragment extends Fragment {
 
     private static final String TAG = "linkFragment";
+    private static final long PREFETCH_DEBOUNCE_MS = 400;
 
     private HomeFragment.OnHomeFragmentInteractionListener mListener;
 
@@ -38,8 +47,20 @@ public class linkFragment extends Fragment {
     private String extractedTranscript = "";
     private boolean isConfirmed = false;
     private boolean isYouTubeVideo = false;
+    private boolean isBatch = false;
 
     private YouTubeTranscriptService transcriptService;
+    private BatchTranscriptIngestor batchIngestor;
+    // Batch extraction in progress and the session its transcripts stream through into the quiz
+    private BatchTranscriptIngestor.Batch batch;
+    private ContentStreamSession contentStream;
+
+    // Transcript fetch started while the link is still being typed/pasted
+    private final Handler prefetchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable prefetchFromInput = () -> startPrefetch(linkInput.getText().toString().trim());
+    private Prefetch prefetch;
+    // Timestamp of the last clip read, so each copied clip is read (and toasted about on Android 12+) once
+    private static long lastClipTimestamp = -1;
 
     @Override
     public void onAttach(@NonNull Context context) {
@@ -54,7 +75,8 @@ public class linkFragment extends Fragment {
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        transcriptService = new YouTubeTranscriptService();
+        transcriptService = new YouTubeTranscriptService(requireContext());
+        batchIngestor = new BatchTranscriptIngestor(requireContext());
     }
 
     @Nullable
@@ -84,6 +106,21 @@ public class linkFragment extends Fragment {
 
         updateUiState();
 
+        // Start on the transcript while the user is still looking at the link
+        linkInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                prefetchHandler.removeCallbacks(prefetchFromInput);
+                prefetchHandler.postDelayed(prefetchFromInput, PREFETCH_DEBOUNCE_MS);
+            }
+        });
+
         // 1. Paste/Go Button
         pasteButton.setOnClickListener(v -> {
             String link = linkInput.getText().toString().trim();
@@ -92,8 +129,13 @@ public class linkFragment extends Fragment {
             } else {
                 processedLink = link;
                 isYouTubeVideo = isYouTubeUrl(link);
+                isBatch = BatchTranscriptIngestor.isBatchInput(link);
 
-                if (isYouTubeVideo) {
+                if (isBatch) {
+                    Log.d(TAG, "📚 Playlist / multiple videos detected - batch extraction");
+                    showLoadingState("Finding videos...");
+                    extractBatch(link);
+                } else if (isYouTubeVideo) {
                     Log.d(TAG, "📹 YouTube video detected - extracting transcript");
                     showLoadingState("Extracting video content...");
                     extractTranscript(link);
@@ -124,7 +166,10 @@ public class linkFragment extends Fragment {
             Log.d(TAG, "📝 processedLink: " + processedLink);
 
             try {
-                if (isYouTubeVideo && !extractedTranscript.isEmpty()) {
+                if (isBatch && contentStream != null) {
+                    Log.d(TAG, "📚 Generating from the batch while the remaining videos are fetched");
+                    launchGenerateQuizFragment(GenerateQuizFragment.newInstanceForStream(contentStream.getId()));
+                } else if (isYouTubeVideo && !extractedTranscript.isEmpty()) {
                     Log.d(TAG, "✅ Using transcript for quiz generation");
                     launchGenerateQuizFragment(extractedTranscript);
                 } else {
@@ -144,6 +189,18 @@ public class linkFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
+        // The quiz was cancelled while videos were still being fetched, which stopped the batch
+        if (contentStream != null && contentStream.isCancelled()) {
+            contentStream = null;
+            batch = null;
+            isBatch = false;
+            isConfirmed = false;
+            updateUiState();
+        }
+        // Clipboard reads need window focus (Android 10+), so wait for the view to be attached
+        if (linkInput != null && linkInput.getText().toString().trim().isEmpty()) {
+            linkInput.post(this::prefetchFromClipboard);
+        }
         // Hide bottom navigation when this fragment is visible
         if (getActivity() != null) {
             BottomNavigationView nav = getActivity().findViewById(R.id.bottomNavigationView);
@@ -176,7 +233,7 @@ public class linkFragment extends Fragment {
      * Extract transcript from YouTube video
      */
     private void extractTranscript(String videoUrl) {
-        transcriptService.getTranscript(videoUrl, new YouTubeTranscriptService.TranscriptCallback() {
+        YouTubeTranscriptService.TranscriptCallback callback = new YouTubeTranscriptService.TranscriptCallback() {
             @Override
             public void onSuccess(String transcript) {
                 Log.d(TAG, "✅ Transcript extracted successfully. Length: " + transcript.length());
@@ -207,7 +264,185 @@ public class linkFragment extends Fragment {
                     });
                 }
             }
+        };
+
+        String videoId = transcriptService.extractVideoId(videoUrl);
+        // A failed prefetch is retried, the network may have come back since
+        if (prefetch != null && prefetch.videoId.equals(videoId) && prefetch.error == null) {
+            Log.d(TAG, "⚡ Using prefetched transcript for " + videoId + (prefetch.done ? " (ready)" : " (in flight)"));
+            prefetch.handTo(callback);
+            return;
+        }
+        cancelPrefetch();
+        transcriptService.getTranscript(videoUrl, callback);
+    }
+
+    private void prefetchFromClipboard() {
+        if (!isAdded() || getContext() == null) return;
+        try {
+            ClipboardManager clipboard = (ClipboardManager) getContext().getSystemService(Context.CLIPBOARD_SERVICE);
+            if (clipboard == null || !clipboard.hasPrimaryClip()) return;
+
+            // The description is readable without the "pasted from clipboard" toast; only read text clips, once each
+            ClipDescription description = clipboard.getPrimaryClipDescription();
+            if (description == null || !description.hasMimeType("text/*")) return;
+            if (description.getTimestamp() == lastClipTimestamp) return;
+            lastClipTimestamp = description.getTimestamp();
+
+            if (clipboard.getPrimaryClip() == null) return;
+            CharSequence text = clipboard.getPrimaryClip().getItemAt(0).getText();
+            if (text == null) return;
+
+            List<String> links = BatchTranscriptIngestor.findVideoLinks(text.toString());
+            if (links.size() == 1) startPrefetch(links.get(0));
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read clipboard", e);
+        }
+    }
+
+    /**
+     * Fetch the transcript for a single YouTube link ahead of the Go button; a newer link
+     * cancels the older fetch
+     */
+    private void startPrefetch(String link) {
+        if (link.isEmpty() || !isYouTubeUrl(link) || BatchTranscriptIngestor.isBatchInput(link)) return;
+        String videoId = transcriptService.extractVideoId(link);
+        if (videoId == null || !videoId.matches("[A-Za-z0-9_-]{11}")) return;
+
+        if (prefetch != null && (prefetch.videoId.equals(videoId) || prefetch.target != null)) return;
+        cancelPrefetch();
+
+        Log.d(TAG, "⚡ Prefetching transcript for " + videoId);
+        prefetch = new Prefetch(videoId, link);
+        transcriptService.getTranscript(link, prefetch);
+    }
+
+    private void cancelPrefetch() {
+        if (prefetch == null) return;
+        if (!prefetch.done) transcriptService.cancel(prefetch.url, prefetch);
+        prefetch = null;
+    }
+
+    /**
+     * Holds a prefetched result until the Go button asks for it; state is main thread only
+     */
+    private class Prefetch implements YouTubeTranscriptService.TranscriptCallback {
+        final String videoId;
+        final String url;
+        boolean done = false;
+        String transcript;
+        String error;
+        YouTubeTranscriptService.TranscriptCallback target;
+
+        Prefetch(String videoId, String url) {
+            this.videoId = videoId;
+            this.url = url;
+        }
+
+        void handTo(YouTubeTranscriptService.TranscriptCallback callback) {
+            target = callback;
+            if (done) deliver();
+        }
+
+        @Override
+        public void onSuccess(String transcript) {
+            prefetchHandler.post(() -> {
+                done = true;
+                this.transcript = transcript;
+                if (target != null) deliver();
+            });
+        }
+
+        @Override
+        public void onError(String error) {
+            prefetchHandler.post(() -> {
+                done = true;
+                this.error = error;
+                if (target != null) deliver();
+            });
+        }
+
+        private void deliver() {
+            // Handed over, the next link gets a fresh prefetch
+            if (prefetch == this) prefetch = null;
+            if (transcript != null) target.onSuccess(transcript);
+            else target.onError(error);
+        }
+    }
+
+    /**
+     * Extract and combine transcripts of a playlist or a list of video links
+     */
+    private void extractBatch(String input) {
+        cancelBatch();
+        ContentStreamSession stream = ContentStreamSession.create();
+        contentStream = stream;
+        batch = batchIngestor.ingest(input, new BatchTranscriptIngestor.Listener() {
+            @Override
+            public void onResolved(int videoCount) {
+                stream.setExpectedSections(videoCount);
+                if (!isAdded()) return;
+                showLoadingState("Extracting " + videoCount + " videos...");
+            }
+
+            @Override
+            public void onVideoDone(int completed, int total, String videoId, boolean success) {
+                Log.d(TAG, (success ? "✅ " : "⚠️ ") + "Video " + videoId + " done (" + completed + "/" + total + ")");
+                if (!isAdded() || isConfirmed) return;
+                showLoadingState("Extracting videos... " + completed + "/" + total);
+            }
+
+            @Override
+            public void onSection(int index, String videoId, String transcript) {
+                Log.d(TAG, "📄 Section " + (index + 1) + " ready, length: " + transcript.length());
+                stream.addSection("--- Video " + (index + 1) + " ---\n" + transcript);
+                // The quiz can start on the first videos, the rest stream into it
+                if (!isAdded() || isConfirmed) return;
+                isConfirmed = true;
+                updateUiState();
+            }
+
+            @Override
+            public void onComplete(String combined, int succeeded, int failed) {
+                Log.d(TAG, "✅ Batch extracted. Length: " + combined.length());
+                stream.finish();
+                extractedTranscript = combined;
+                if (!isAdded()) return;
+                isConfirmed = true;
+                updateUiState();
+                if (failed > 0) {
+                    CustomToast.warning(getContext(), succeeded + " videos extracted, " + failed + " without captions skipped");
+                } else {
+                    CustomToast.success(getContext(), succeeded + " videos extracted!");
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.e(TAG, "❌ Batch extraction failed: " + error);
+                stream.fail(error);
+                if (!isAdded()) return;
+                CustomToast.error(getContext(), error);
+                isBatch = false;
+                isConfirmed = false;
+                updateUiState();
+            }
         });
+        stream.setOnCancel(batch::cancel);
+    }
+
+    /**
+     * Stop the batch unless a quiz is being generated from it; the quiz then owns it and
+     * cancels it through the stream session
+     */
+    private void cancelBatch() {
+        if (batch == null) return;
+        if (contentStream == null || !contentStream.isClaimed()) {
+            batch.cancel();
+            if (contentStream != null) ContentStreamSession.remove(contentStream.getId());
+        }
+        batch = null;
+        contentStream = null;
     }
 
     private void showLoadingState(String message) {
@@ -227,7 +462,11 @@ public class linkFragment extends Fragment {
             confirmationContainer.setVisibility(View.VISIBLE);
 
             // Update button text based on content type
-            if (isYouTubeVideo) {
+            if (isBatch) {
+                // Several videos, nothing single to watch
+                rewatchButton.setVisibility(View.GONE);
+                quizButton.setText("Take Quiz (All Videos)");
+            } else if (isYouTubeVideo) {
                 rewatchButton.setText("Watch Video");
                 quizButton.setText(extractedTranscript.isEmpty() ?
                         "Take Quiz (URL)" : "Take Quiz (Transcript)");
@@ -247,9 +486,10 @@ public class linkFragment extends Fragment {
      */
     private void launchGenerateQuizFragment(String content) {
         Log.d(TAG, "🚀 Creating GenerateQuizFragment with content length: " + content.length());
+        launchGenerateQuizFragment(GenerateQuizFragment.newInstance(content));
+    }
 
-        GenerateQuizFragment fragment = GenerateQuizFragment.newInstance(content);
-
+    private void launchGenerateQuizFragment(GenerateQuizFragment fragment) {
         getParentFragmentManager().beginTransaction()
                 .replace(R.id.fragment_container, fragment)
                 .addToBackStack(null)
@@ -258,6 +498,14 @@ public class linkFragment extends Fragment {
         Log.d(TAG, "✅ GenerateQuizFragment transaction committed");
     }
 
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        cancelBatch();
+        prefetchHandler.removeCallbacks(prefetchFromInput);
+        cancelPrefetch();
+    }
+
     @Override
     public void onDetach() {
         super.onDetach();
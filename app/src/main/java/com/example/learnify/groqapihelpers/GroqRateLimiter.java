@@ -0,0 +1,293 @@
+package com.example.learnify.groqapihelpers;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.learnify.BuildConfig;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Client-side rate limiting for api.groq.com.
+ *
+ * - Paces requests with a token bucket sized from Groq's x-ratelimit-* response headers
+ *   (tokens per minute), so bursts wait locally instead of being rejected.
+ * - Retries 429 and 5xx answers with jittered exponential backoff, honouring retry-after.
+ * - Retries draw from a shared budget that refills with successful traffic, so an outage
+ *   does not turn every user action into a retry storm.
+ *
+ * Until the first response reports the account's real limit, the bucket assumes
+ * GROQ_TOKENS_PER_MINUTE from local.properties (free tier, 6000, if unset). At 6000 the three
+ * parallel sections of a chunked quiz (~4.5k tokens each with the answer allowance) do not fit in
+ * one minute, so the second and third wait up to 30 s each. Paid tiers should set their limit.
+ */
+public class GroqRateLimiter implements Interceptor {
+
+    private static final String TAG = "GroqRateLimiter";
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 8000;
+    private static final long MAX_PACING_WAIT_MS = 30000;
+
+    // Free-tier limit for llama-3.1-8b-instant, used when local.properties does not say otherwise
+    private static final double DEFAULT_TOKENS_PER_MINUTE = 6000;
+    // Expected answer size on top of the prompt, a 15 question quiz is roughly this big
+    private static final int COMPLETION_TOKEN_ALLOWANCE = 1500;
+
+    // Retry budget: every request earns 0.2 retries, at most 10 banked
+    private static final double RETRY_BUDGET_MAX = 10;
+    private static final double RETRY_BUDGET_PER_REQUEST = 0.2;
+
+    private static GroqRateLimiter instance;
+
+    private final Random random = new Random();
+
+    // Token bucket (LLM tokens)
+    private double bucketCapacity;
+    private double bucketLevel;
+    private long lastRefillMs = System.currentTimeMillis();
+    // Groq reported no requests left until this time
+    private long requestsBlockedUntilMs = 0;
+
+    private double retryBudget = RETRY_BUDGET_MAX;
+
+    // 429s from Groq, and requests we held back ourselves, counted apart
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+    private final AtomicInteger pacedCount = new AtomicInteger();
+    private final AtomicLong pacedMillis = new AtomicLong();
+    private final AtomicInteger retryCount = new AtomicInteger();
+    private final AtomicInteger budgetExhaustedCount = new AtomicInteger();
+
+    private GroqRateLimiter(double tokensPerMinute) {
+        bucketCapacity = tokensPerMinute;
+        bucketLevel = tokensPerMinute;
+    }
+
+    public static synchronized GroqRateLimiter getInstance() {
+        if (instance == null) {
+            int configured = BuildConfig.GROQ_TOKENS_PER_MINUTE;
+            instance = new GroqRateLimiter(configured > 0 ? configured : DEFAULT_TOKENS_PER_MINUTE);
+        }
+        return instance;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        int estimate = estimateTokens(request);
+
+        for (int attempt = 1; ; attempt++) {
+            pace(chain, estimate);
+
+            Response response = chain.proceed(request);
+            updateFromHeaders(response);
+
+            int code = response.code();
+            boolean retryable = code == 429 || code >= 500;
+            if (!retryable) {
+                earnRetryBudget();
+                return response;
+            }
+
+            if (code == 429) {
+                rejectedCount.incrementAndGet();
+            }
+
+            if (attempt >= MAX_ATTEMPTS) {
+                Log.w(TAG, "⛔ Giving up after " + attempt + " attempts (HTTP " + code + ")");
+                return response;
+            }
+            if (!spendRetryBudget()) {
+                budgetExhaustedCount.incrementAndGet();
+                Log.w(TAG, "⛔ Retry budget exhausted (HTTP " + code + ")");
+                return response;
+            }
+
+            long delay = backoffDelay(attempt, response);
+            response.close();
+            retryCount.incrementAndGet();
+            Log.d(TAG, "🔁 HTTP " + code + ", retry " + attempt + " in " + delay + " ms");
+            sleep(chain, delay);
+        }
+    }
+
+    /**
+     * Requests Groq answered with 429
+     */
+    public int getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Requests held back locally by the token bucket, and the total time they waited
+     */
+    public int getPacedCount() {
+        return pacedCount.get();
+    }
+
+    public long getPacedMillis() {
+        return pacedMillis.get();
+    }
+
+    public int getRetryCount() {
+        return retryCount.get();
+    }
+
+    public int getBudgetExhaustedCount() {
+        return budgetExhaustedCount.get();
+    }
+
+    /**
+     * Wait until the bucket holds enough tokens for this request (or the request limit resets)
+     */
+    private void pace(Chain chain, int estimate) throws IOException {
+        long wait;
+        synchronized (this) {
+            refill();
+            long now = System.currentTimeMillis();
+            double needed = Math.min(estimate, bucketCapacity);
+
+            long tokenWait = bucketLevel >= needed ? 0
+                    : (long) ((needed - bucketLevel) / (bucketCapacity / 60000.0));
+            long requestWait = Math.max(0, requestsBlockedUntilMs - now);
+            wait = Math.min(MAX_PACING_WAIT_MS, Math.max(tokenWait, requestWait));
+
+            // Reserve now so parallel callers queue up behind this one
+            bucketLevel -= needed;
+        }
+
+        if (wait > 0) {
+            pacedCount.incrementAndGet();
+            pacedMillis.addAndGet(wait);
+            Log.d(TAG, "⏳ Pacing Groq request for " + wait + " ms");
+            sleep(chain, wait);
+        }
+    }
+
+    private void refill() {
+        long now = System.currentTimeMillis();
+        double refillPerMs = bucketCapacity / 60000.0;
+        bucketLevel = Math.min(bucketCapacity, bucketLevel + (now - lastRefillMs) * refillPerMs);
+        lastRefillMs = now;
+    }
+
+    /**
+     * Sync the local bucket with what Groq says is left
+     */
+    private synchronized void updateFromHeaders(Response response) {
+        String limitTokens = response.header("x-ratelimit-limit-tokens");
+        String remainingTokens = response.header("x-ratelimit-remaining-tokens");
+        String remainingRequests = response.header("x-ratelimit-remaining-requests");
+        String resetRequests = response.header("x-ratelimit-reset-requests");
+
+        try {
+            if (limitTokens != null) {
+                bucketCapacity = Math.max(1, Double.parseDouble(limitTokens));
+            }
+            if (remainingTokens != null) {
+                refill();
+                bucketLevel = Math.min(bucketLevel, Double.parseDouble(remainingTokens));
+            }
+            if (remainingRequests != null && Long.parseLong(remainingRequests) <= 0 && resetRequests != null) {
+                requestsBlockedUntilMs = System.currentTimeMillis() + parseDuration(resetRequests);
+            }
+        } catch (NumberFormatException e) {
+            Log.w(TAG, "Unexpected rate limit header", e);
+        }
+    }
+
+    private long backoffDelay(int attempt, Response response) {
+        long exponential = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << (attempt - 1));
+        // Full jitter: spread retries of parallel requests apart
+        long delay = (long) (random.nextDouble() * exponential);
+
+        String retryAfter = response.header("retry-after");
+        if (retryAfter != null) {
+            try {
+                delay = Math.max(delay, (long) (Double.parseDouble(retryAfter) * 1000));
+            } catch (NumberFormatException ignored) {}
+        } else if (response.code() == 429) {
+            String resetTokens = response.header("x-ratelimit-reset-tokens");
+            if (resetTokens != null) delay = Math.max(delay, parseDuration(resetTokens));
+        }
+        return Math.min(delay, MAX_PACING_WAIT_MS);
+    }
+
+    private synchronized void earnRetryBudget() {
+        retryBudget = Math.min(RETRY_BUDGET_MAX, retryBudget + RETRY_BUDGET_PER_REQUEST);
+    }
+
+    private synchronized boolean spendRetryBudget() {
+        if (retryBudget < 1) return false;
+        retryBudget -= 1;
+        return true;
+    }
+
+    private int estimateTokens(Request request) {
+        long bytes = 0;
+        try {
+            if (request.body() != null) bytes = request.body().contentLength();
+        } catch (IOException ignored) {}
+        return (int) Math.max(0, bytes / 4) + COMPLETION_TOKEN_ALLOWANCE;
+    }
+
+    /**
+     * Sleep in short slices so a cancelled call stops waiting
+     */
+    private void sleep(Chain chain, long millis) throws IOException {
+        long end = System.currentTimeMillis() + millis;
+        try {
+            while (System.currentTimeMillis() < end) {
+                if (chain.call().isCanceled()) throw new IOException("Canceled");
+                Thread.sleep(Math.min(250, Math.max(1, end - System.currentTimeMillis())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rate limited");
+        }
+    }
+
+    /**
+     * Groq durations look like "7.66s", "2m59.56s", "1h2m3s" or "250ms"
+     */
+    static long parseDuration(String value) {
+        long total = 0;
+        StringBuilder number = new StringBuilder();
+        String s = value.trim();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isDigit(c) || c == '.') {
+                number.append(c);
+                continue;
+            }
+            if (number.length() == 0) continue;
+
+            double n = Double.parseDouble(number.toString());
+            number.setLength(0);
+            if (c == 'h') {
+                total += (long) (n * 3600000);
+            } else if (c == 'm' && i + 1 < s.length() && s.charAt(i + 1) == 's') {
+                total += (long) n;
+                i++;
+            } else if (c == 'm') {
+                total += (long) (n * 60000);
+            } else if (c == 's') {
+                total += (long) (n * 1000);
+            }
+        }
+        // A bare number is seconds
+        if (number.length() > 0) total += (long) (Double.parseDouble(number.toString()) * 1000);
+        return total;
+    }
+}
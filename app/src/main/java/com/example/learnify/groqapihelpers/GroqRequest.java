@@ -12,12 +12,37 @@ public class GroqRequest {
     // --- NEW FIELD: Force JSON Mode ---
     final ResponseFormat response_format;
 
+    // Only sent when streaming (Gson skips null fields)
+    final Boolean stream;
+
     public GroqRequest(String prompt) {
+        this(prompt, false);
+    }
+
+    public GroqRequest(String prompt, boolean stream) {
+        this(null, prompt, stream);
+    }
+
+    /**
+     * System message first so identical instructions form a cacheable prompt prefix
+     */
+    public GroqRequest(String systemPrompt, String userContent, boolean stream) {
         this.messages = new ArrayList<>();
-        this.messages.add(new Message("user", prompt));
+        if (systemPrompt != null) {
+            this.messages.add(new Message("system", systemPrompt));
+        }
+        this.messages.add(new Message("user", userContent));
 
-        // Initialize the format to force JSON object
-        this.response_format = new ResponseFormat("json_object");
+        if (stream) {
+            // Groq does not allow JSON mode together with SSE streaming,
+            // the prompt itself already forces a pure JSON answer
+            this.response_format = null;
+            this.stream = true;
+        } else {
+            // Initialize the format to force JSON object
+            this.response_format = new ResponseFormat("json_object");
+            this.stream = null;
+        }
     }
 
     static class Message {
@@ -37,4 +62,4 @@ public class GroqRequest {
             this.type = type;
         }
     }
-}
\ No newline at end of file
+}
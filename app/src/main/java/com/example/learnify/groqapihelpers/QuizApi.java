@@ -1,14 +1,26 @@
 package com.example.learnify.groqapihelpers;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.Header;
 import retrofit2.http.POST;
+import retrofit2.http.Streaming;
 
 public interface QuizApi {
+    // Raw body so QuizResponseDecoder can read it in one pass without an intermediate tree
+    @Streaming
     @POST("openai/v1/chat/completions")
-    Call<GroqResponse> generateQuiz(
+    Call<ResponseBody> generateQuiz(
             @Header("Authorization") String authHeader, // "Bearer gsk_..."
             @Body GroqRequest request
     );
-}
\ No newline at end of file
+
+    // Server-sent events: body must be read incrementally, not buffered by Retrofit
+    @Streaming
+    @POST("openai/v1/chat/completions")
+    Call<ResponseBody> generateQuizStream(
+            @Header("Authorization") String authHeader,
+            @Body GroqRequest request
+    );
+}
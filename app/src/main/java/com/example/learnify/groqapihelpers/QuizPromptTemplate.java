@@ -0,0 +1,169 @@
+package com.example.learnify.groqapihelpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precompiled quiz prompt.
+ *
+ * All fixed instructions live in the system message, which only depends on language and quiz
+ * settings. It is rendered once per combination and reused byte for byte, so Groq's prompt
+ * prefix cache can skip it on every request after the first. The user message carries only the
+ * document content.
+ */
+public class QuizPromptTemplate {
+
+    private static final String LANGUAGE = "{LANGUAGE}";
+    private static final String COUNT = "{COUNT}";
+    private static final String DIFFICULTY = "{DIFFICULTY}";
+    private static final String CODING = "{CODING}";
+
+    private static final String SYSTEM_TEMPLATE =
+            "You are a strict JSON generator that creates educational quizzes. OUTPUT ONLY VALID JSON.\n" +
+            "Never output explanations, notes, markdown, or text outside JSON.\n\n" +
+
+            "JSON FORMATTING RULES:\n" +
+            "- Use ONLY double quotes (\")\n" +
+            "- NEVER use single quotes (')\n" +
+            "- No trailing commas\n" +
+            "- Every string must be enclosed in double quotes\n" +
+            "- The JSON MUST match the required structure exactly\n" +
+            "- The value of \"type\" must be either \"MCQ\" or \"CODING\"\n\n" +
+
+            "🏷️ QUIZ TITLE RULES (IMPORTANT):\n" +
+            "1. Generate a SHORT topic name (2-4 words max)\n" +
+            "2. DO NOT include the word 'Quiz' in the topic\n" +
+            "3. Use general terms like 'Loops' instead of specific syntax like 'For Loop'\n" +
+            "4. Good examples: 'Newton Laws', 'Python Functions', 'Cell Biology', 'Data Structures'\n" +
+            "5. Bad examples: 'For Loop Quiz', 'Quiz About Functions', 'The Quiz'\n\n" +
+
+            "🌍 LANGUAGE REQUIREMENT:\n" +
+            "CRITICAL: ALL quiz content MUST be in {LANGUAGE} ONLY.\n" +
+            "- Even if the input content is in a different language\n" +
+            "- ALL questions, options, and answers MUST be generated in {LANGUAGE}\n" +
+            "- Translate concepts, ideas, and facts to {LANGUAGE}\n" +
+            "- Maintain the original meaning while using {LANGUAGE} language\n\n" +
+
+            "📊 QUIZ SETTINGS:\n" +
+            "- Number of questions: Generate EXACTLY {COUNT} questions\n" +
+            "- Difficulty: {DIFFICULTY}\n" +
+            "- Coding questions: {CODING}\n\n" +
+
+            "TASK:\n" +
+            "The user message contains the content to analyze.\n" +
+            "Generate exactly {COUNT} quiz questions based on that content.\n" +
+            "Rules:\n" +
+            "1. Extract key information from the content (regardless of its language)\n" +
+            "2. Create questions that test understanding of the material\n" +
+            "3. Do NOT invent facts not present in the content\n" +
+            "4. Follow the difficulty setting: {DIFFICULTY}\n" +
+            "5. Follow the coding setting: {CODING}\n" +
+            "6. 🌍 ALL TEXT IN {LANGUAGE} - translate if source is in another language\n\n" +
+
+            "RESPONSE FORMAT:\n" +
+            "{\n" +
+            "  \"topic\": \"Short Topic Name (2-4 words, NO 'Quiz' word)\",\n" +
+            "  \"questions\": [\n" +
+            "    {\n" +
+            "      \"type\": \"MCQ\",\n" +
+            "      \"questionText\": \"Question in {LANGUAGE}\",\n" +
+            "      \"options\": [\"Option A\", \"Option B\", \"Option C\", \"Option D\"],\n" +
+            "      \"correctAnswer\": \"Correct option\",\n" +
+            "      \"difficulty\": \"EASY\"\n" +
+            "    }\n" +
+            "  ]\n" +
+            "}\n\n" +
+
+            "For coding questions:\n" +
+            "{\n" +
+            "  \"type\": \"CODING\",\n" +
+            "  \"questionText\": \"Coding task in {LANGUAGE}\",\n" +
+            "  \"options\": [],\n" +
+            "  \"correctAnswer\": \"Sample solution\",\n" +
+            "  \"difficulty\": \"HARD\"\n" +
+            "}\n\n" +
+
+            "🎯 REMEMBER: Output ONLY the JSON object. ALL text in {LANGUAGE}. Include 'topic' field! Generate EXACTLY {COUNT} questions!";
+
+    private static final String CONTENT_HEADER = "CONTENT TO ANALYZE:\n";
+
+    // Template split once at its placeholders: literal, placeholder, literal, ...
+    private static final List<String> SEGMENTS = compile(SYSTEM_TEMPLATE);
+
+    private static final Map<String, String> systemPrompts = new ConcurrentHashMap<>();
+
+    private QuizPromptTemplate() {}
+
+    /**
+     * Rendered system message, cached per language/settings combination
+     */
+    public static String systemPrompt(String language, int questionCount,
+                                      String difficultyInstruction, String codingInstruction) {
+        String key = language + "|" + questionCount + "|" + difficultyInstruction + "|" + codingInstruction;
+        return systemPrompts.computeIfAbsent(key,
+                k -> render(language, String.valueOf(questionCount), difficultyInstruction, codingInstruction));
+    }
+
+    /**
+     * User message: the document content and nothing else
+     */
+    public static String userMessage(String content) {
+        return CONTENT_HEADER + content;
+    }
+
+    /**
+     * Rough token count for a prompt: Latin text runs about 4 characters per token,
+     * other scripts (Urdu, Arabic, CJK...) closer to one token per character or two.
+     */
+    public static int estimateTokens(String text) {
+        if (text == null) return 0;
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) ascii++;
+            else other++;
+        }
+        return (ascii + 3) / 4 + (other + 1) / 2;
+    }
+
+    private static String render(String language, String count, String difficulty, String coding) {
+        StringBuilder sb = new StringBuilder(SYSTEM_TEMPLATE.length() + 256);
+        for (String segment : SEGMENTS) {
+            switch (segment) {
+                case LANGUAGE: sb.append(language); break;
+                case COUNT: sb.append(count); break;
+                case DIFFICULTY: sb.append(difficulty); break;
+                case CODING: sb.append(coding); break;
+                default: sb.append(segment);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<String> compile(String template) {
+        String[] placeholders = {LANGUAGE, COUNT, DIFFICULTY, CODING};
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        while (start < template.length()) {
+            int next = -1;
+            String found = null;
+            for (String p : placeholders) {
+                int idx = template.indexOf(p, start);
+                if (idx >= 0 && (next < 0 || idx < next)) {
+                    next = idx;
+                    found = p;
+                }
+            }
+            if (found == null) {
+                segments.add(template.substring(start));
+                break;
+            }
+            if (next > start) segments.add(template.substring(start, next));
+            segments.add(found);
+            start = next + found.length();
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.learnify.groqapihelpers;
+
+import com.example.learnify.modelclass.QuizQuestion;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass decoder for Groq quiz answers built on Gson's JsonReader.
+ *
+ * Reads the chat completion envelope straight from the HTTP body and the quiz inside it
+ * straight into QuizQuestion objects, without building a JsonObject tree or stripping
+ * code fences with String.replace first.
+ */
+public class QuizResponseDecoder {
+
+    public static class DecodedQuiz {
+        public String topic;
+        public final List<QuizQuestion> questions = new ArrayList<>();
+    }
+
+    private final TypeAdapter<QuizQuestion> questionAdapter;
+
+    public QuizResponseDecoder(Gson gson) {
+        this.questionAdapter = gson.getAdapter(QuizQuestion.class);
+    }
+
+    /**
+     * Decode a non-streamed chat completion: {"choices":[{"message":{"content":"..."}}], ...}
+     * Returns null when the answer has no content.
+     */
+    public DecodedQuiz decodeCompletion(Reader body) throws IOException {
+        String content = null;
+
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("choices".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                content = readFirstChoiceContent(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        // The quiz itself is a JSON document inside a JSON string, so it is decoded in a second reader
+        return content != null ? decodeContent(new StringReader(content)) : null;
+    }
+
+    /**
+     * Decode the model's own output: {"topic": "...", "questions": [...]}, optionally wrapped in ``` fences
+     */
+    public DecodedQuiz decodeContent(Reader content) throws IOException {
+        DecodedQuiz quiz = new DecodedQuiz();
+
+        JsonReader reader = new JsonReader(new FenceSkippingReader(content));
+        // Models occasionally slip (single quotes, unquoted names); be forgiving
+        reader.setLenient(true);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("topic".equals(name) && reader.peek() == JsonToken.STRING) {
+                quiz.topic = reader.nextString();
+            } else if ("questions".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    QuizQuestion question = questionAdapter.read(reader);
+                    if (question != null) quiz.questions.add(question);
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        // Stop at the end of the object, whatever trails it (closing fence) is never read
+        return quiz;
+    }
+
+    private String readFirstChoiceContent(JsonReader reader) throws IOException {
+        String content = null;
+        boolean first = true;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (!first || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            first = false;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("message".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if ("content".equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+                            content = reader.nextString();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+        return content;
+    }
+
+    /**
+     * Drops everything before the first '{' (e.g. "```json"), then passes characters through
+     */
+    static class FenceSkippingReader extends FilterReader {
+        private boolean started = false;
+
+        FenceSkippingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = in.read();
+            while (!started && c != -1 && c != '{') {
+                c = in.read();
+            }
+            started = true;
+            return c;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) throws IOException {
+            if (started) return in.read(buf, off, len);
+
+            int c = read();
+            if (c == -1) return -1;
+            buf[off] = (char) c;
+            if (len == 1) return 1;
+
+            int n = in.read(buf, off + 1, len - 1);
+            return n == -1 ? 1 : n + 1;
+        }
+    }
+}
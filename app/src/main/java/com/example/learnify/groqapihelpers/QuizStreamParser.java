@@ -0,0 +1,181 @@
+package com.example.learnify.groqapihelpers;
+
+import com.example.learnify.modelclass.QuizQuestion;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Incremental parser for a streamed quiz answer.
+ *
+ * The model writes {"topic": "...", "questions": [ {...}, {...} ]} token by token.
+ * Every chunk of text is fed in as it arrives and each question object is handed
+ * to the listener as soon as its closing brace has been seen.
+ */
+public class QuizStreamParser {
+
+    public interface Listener {
+        void onTopic(String topic);
+        void onQuestion(QuizQuestion question);
+    }
+
+    private final Gson gson;
+    private final Listener listener;
+    private final StringBuilder buffer = new StringBuilder();
+
+    // Scanner state
+    private int scanIndex = 0;
+    private int depth = 0;
+    private boolean inString = false;
+    private boolean escaped = false;
+    private int stringStart = -1;
+
+    // Root object state (depth 1)
+    private boolean expectingKey = false;
+    private String lastKey;
+    private String topic;
+
+    // Questions array state
+    private int questionsDepth = -1;
+    private int questionStart = -1;
+    private int questionCount = 0;
+
+    public QuizStreamParser(Gson gson, Listener listener) {
+        this.gson = gson;
+        this.listener = listener;
+    }
+
+    /**
+     * Feed the next piece of model output
+     */
+    public void feed(String chunk) {
+        if (chunk == null || chunk.isEmpty()) return;
+        buffer.append(chunk);
+
+        for (; scanIndex < buffer.length(); scanIndex++) {
+            char c = buffer.charAt(scanIndex);
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    onStringEnd(stringStart, scanIndex);
+                }
+                continue;
+            }
+
+            // Ignore code fences and anything else before the root object
+            if (depth == 0 && c != '{') continue;
+
+            switch (c) {
+                case '"':
+                    inString = true;
+                    stringStart = scanIndex;
+                    break;
+                case '{':
+                    depth++;
+                    if (depth == 1) {
+                        expectingKey = true;
+                    } else if (questionsDepth != -1 && depth == questionsDepth + 1) {
+                        questionStart = scanIndex;
+                    }
+                    break;
+                case '}':
+                    if (questionsDepth != -1 && depth == questionsDepth + 1 && questionStart != -1) {
+                        emitQuestion(buffer.substring(questionStart, scanIndex + 1));
+                        questionStart = -1;
+                    }
+                    depth--;
+                    break;
+                case '[':
+                    depth++;
+                    if (depth == 2 && "questions".equals(lastKey)) {
+                        questionsDepth = depth;
+                    }
+                    break;
+                case ']':
+                    if (depth == questionsDepth) {
+                        questionsDepth = -1;
+                    }
+                    depth--;
+                    break;
+                case ':':
+                    if (depth == 1) expectingKey = false;
+                    break;
+                case ',':
+                    if (depth == 1) expectingKey = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    /**
+     * Everything received so far (used as a fallback for a full parse)
+     */
+    public String getText() {
+        return buffer.toString();
+    }
+
+    private void onStringEnd(int start, int end) {
+        if (depth != 1) return;
+
+        String value = unescape(buffer.substring(start, end + 1));
+        if (expectingKey) {
+            lastKey = value;
+        } else if ("topic".equals(lastKey) && topic == null) {
+            topic = value;
+            listener.onTopic(value);
+        }
+    }
+
+    private void emitQuestion(String json) {
+        try {
+            QuizQuestion question = gson.fromJson(json, QuizQuestion.class);
+            if (question != null && question.questionText != null) {
+                questionCount++;
+                listener.onQuestion(question);
+            }
+        } catch (Exception ignored) {
+            // A malformed question is skipped, the rest of the stream is still usable
+        }
+    }
+
+    private String unescape(String quoted) {
+        try {
+            return gson.fromJson(quoted, String.class);
+        } catch (Exception e) {
+            return quoted.substring(1, quoted.length() - 1);
+        }
+    }
+
+    /**
+     * Pull the content delta out of one SSE "data:" payload of a chat completion chunk
+     */
+    public static String extractDelta(String data) {
+        JsonObject chunk = JsonParser.parseString(data).getAsJsonObject();
+        JsonArray choices = chunk.getAsJsonArray("choices");
+        if (choices == null || choices.size() == 0) return null;
+
+        JsonObject choice = choices.get(0).getAsJsonObject();
+        JsonObject delta = choice.getAsJsonObject("delta");
+        if (delta == null) return null;
+
+        JsonElement content = delta.get("content");
+        return content != null && !content.isJsonNull() ? content.getAsString() : null;
+    }
+}
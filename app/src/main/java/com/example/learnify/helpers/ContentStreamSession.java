@@ -0,0 +1,151 @@
+package com.example.learnify.helpers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hands content that is still being extracted (a playlist's transcripts, a PDF's pages) over to
+ * GenerateQuizFragment, so quiz generation can start on the first sections.
+ *
+ * The producer adds sections in order and finishes or fails the session; the consumer reads what
+ * already arrived through the getters and the rest through the listener. cancel() is the
+ * consumer's way to stop the producer once it no longer needs the content.
+ * All methods are expected to be called on the main thread.
+ */
+public class ContentStreamSession {
+
+    public interface Listener {
+        void onSectionAdded(String section);
+        void onFinished();
+        void onFailed(String error);
+    }
+
+    // Only the newest few are kept; a session is normally removed once its quiz is generated
+    private static final int MAX_SESSIONS = 4;
+    private static final Map<String, ContentStreamSession> sessions =
+            new LinkedHashMap<String, ContentStreamSession>(8, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ContentStreamSession> eldest) {
+                    return size() > MAX_SESSIONS;
+                }
+            };
+
+    private final String id;
+    private final List<String> sections = new ArrayList<>();
+    private int expectedSections = 0;
+    private Listener listener;
+    private Runnable onCancel;
+    private boolean finished = false;
+    private boolean cancelled = false;
+    private String error;
+
+    private ContentStreamSession(String id) {
+        this.id = id;
+    }
+
+    public static ContentStreamSession create() {
+        ContentStreamSession session = new ContentStreamSession(UUID.randomUUID().toString());
+        sessions.put(session.id, session);
+        return session;
+    }
+
+    public static ContentStreamSession get(String id) {
+        return id != null ? sessions.get(id) : null;
+    }
+
+    public static void remove(String id) {
+        if (id != null) sessions.remove(id);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<String> getSections() {
+        return new ArrayList<>(sections);
+    }
+
+    /**
+     * Everything received so far, sections separated by blank lines
+     */
+    public String getText() {
+        return String.join("\n\n", sections);
+    }
+
+    /**
+     * How many sections the producer expects to add, 0 if unknown
+     */
+    public int getExpectedSections() {
+        return expectedSections;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * True once a consumer listens for the remaining sections
+     */
+    public boolean isClaimed() {
+        return listener != null;
+    }
+
+    /**
+     * Attach the listener; anything that already happened is visible through the getters
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Called by the producer; runs when the consumer cancels
+     */
+    public void setOnCancel(Runnable onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    public void setExpectedSections(int expectedSections) {
+        this.expectedSections = expectedSections;
+    }
+
+    public void addSection(String section) {
+        if (finished) return;
+        sections.add(section);
+        if (listener != null) listener.onSectionAdded(section);
+    }
+
+    public void finish() {
+        if (finished) return;
+        finished = true;
+        if (listener != null) listener.onFinished();
+    }
+
+    public void fail(String error) {
+        if (finished) return;
+        finished = true;
+        this.error = error;
+        if (listener != null) listener.onFailed(error);
+    }
+
+    /**
+     * Stop the producer; nothing is delivered afterwards
+     */
+    public void cancel() {
+        if (finished) return;
+        finished = true;
+        cancelled = true;
+        listener = null;
+        if (onCancel != null) onCancel.run();
+    }
+}
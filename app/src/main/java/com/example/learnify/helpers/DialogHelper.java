@@ -528,6 +528,15 @@ public class DialogHelper {
      */
     public static void showQuizCustomizerDialog(Context context, String currentLanguage, 
                                                  QuizCustomizerListener listener) {
+        showQuizCustomizerDialog(context, currentLanguage, null, listener);
+    }
+
+    /**
+     * Show Quiz Customizer Dialog preselected with initialSettings (e.g. the last used ones)
+     */
+    public static void showQuizCustomizerDialog(Context context, String currentLanguage,
+                                                 QuizSettings initialSettings,
+                                                 QuizCustomizerListener listener) {
         Dialog dialog = new Dialog(context);
         dialog.requestWindowFeature(Window.FEATURE_NO_TITLE);
         dialog.setCancelable(true);
@@ -552,6 +561,22 @@ public class DialogHelper {
         // Set current language
         tvLanguage.setText(currentLanguage);
 
+        if (initialSettings != null) {
+            switch (initialSettings.getNumberOfQuestions()) {
+                case 3: rgQuestionCount.check(R.id.chip_questions_3); break;
+                case 10: rgQuestionCount.check(R.id.chip_questions_10); break;
+                case 15: rgQuestionCount.check(R.id.chip_questions_15); break;
+                default: rgQuestionCount.check(R.id.chip_questions_5);
+            }
+            switch (initialSettings.getDifficulty()) {
+                case EASY: rgDifficulty.check(R.id.chip_easy); break;
+                case MEDIUM: rgDifficulty.check(R.id.chip_medium); break;
+                case HARD: rgDifficulty.check(R.id.chip_hard); break;
+                default: rgDifficulty.check(R.id.chip_mix);
+            }
+            switchCoding.setChecked(initialSettings.isIncludeCodingQuestions());
+        }
+
         // Handle cancel
         btnCancel.setOnClickListener(v -> {
             dialog.dismiss();
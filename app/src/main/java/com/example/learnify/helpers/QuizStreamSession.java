@@ -0,0 +1,116 @@
+package com.example.learnify.helpers;
+
+import com.example.learnify.modelclass.QuizQuestion;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hands a quiz that is still being streamed from GenerateQuizFragment over to QuizActivity.
+ *
+ * QuizActivity opens on the first question and picks up the rest through the listener.
+ * All methods are expected to be called on the main thread.
+ */
+public class QuizStreamSession {
+
+    public interface Listener {
+        void onQuestionAdded(QuizQuestion question);
+        void onCompleted(String quizId, String title);
+        void onFailed(String error);
+    }
+
+    // Only the newest few are kept; a session is normally removed when its QuizActivity finishes
+    private static final int MAX_SESSIONS = 4;
+    private static final Map<String, QuizStreamSession> sessions =
+            new LinkedHashMap<String, QuizStreamSession>(8, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, QuizStreamSession> eldest) {
+                    return size() > MAX_SESSIONS;
+                }
+            };
+
+    private final String id;
+    private final List<QuizQuestion> questions = new ArrayList<>();
+    private Listener listener;
+    private boolean finished = false;
+    private String quizId;
+    private String title;
+    private String error;
+
+    private QuizStreamSession(String id) {
+        this.id = id;
+    }
+
+    public static QuizStreamSession create() {
+        QuizStreamSession session = new QuizStreamSession(UUID.randomUUID().toString());
+        sessions.put(session.id, session);
+        return session;
+    }
+
+    public static QuizStreamSession get(String id) {
+        return id != null ? sessions.get(id) : null;
+    }
+
+    public static void remove(String id) {
+        if (id != null) sessions.remove(id);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<QuizQuestion> getQuestions() {
+        return new ArrayList<>(questions);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public String getQuizId() {
+        return quizId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Attach the listener; anything that already happened is visible through the getters
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void addQuestion(QuizQuestion question) {
+        if (finished) return;
+        questions.add(question);
+        if (listener != null) listener.onQuestionAdded(question);
+    }
+
+    public void complete(String quizId, String title) {
+        if (finished) return;
+        finished = true;
+        this.quizId = quizId;
+        if (title != null) this.title = title;
+        if (listener != null) listener.onCompleted(quizId, this.title);
+    }
+
+    public void fail(String error) {
+        if (finished) return;
+        finished = true;
+        this.error = error;
+        if (listener != null) listener.onFailed(error);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.learnify.modelclass;
+
+import android.net.Uri;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Caption tracks known to exist for one video: language, kind and (possibly expired) base URL.
+ *
+ * Built from the captionTracks array of the player response, or from the track a probe found,
+ * and stored next to the transcript cache so later requests can ask for the right track directly.
+ */
+public class CaptionTrackManifest {
+
+    public static class Track {
+        private final String lang;
+        private final boolean asr;
+        private final String baseUrl; // null when only the language is known
+
+        public Track(String lang, boolean asr, String baseUrl) {
+            this.lang = lang;
+            this.asr = asr;
+            this.baseUrl = baseUrl;
+        }
+
+        public String getLang() {
+            return lang;
+        }
+
+        public boolean isAsr() {
+            return asr;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        /**
+         * Caption URLs are signed with an expire timestamp (seconds); treat unknown as expired
+         */
+        public boolean isUrlFresh(long nowMillis) {
+            if (baseUrl == null) return false;
+            try {
+                String expire = Uri.parse(baseUrl).getQueryParameter("expire");
+                // A minute of margin for the request itself
+                return expire != null && Long.parseLong(expire) * 1000 > nowMillis + 60_000;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+    private final List<Track> tracks;
+
+    public CaptionTrackManifest(List<Track> tracks) {
+        this.tracks = Collections.unmodifiableList(new ArrayList<>(tracks));
+    }
+
+    public List<Track> getTracks() {
+        return tracks;
+    }
+
+    public boolean isEmpty() {
+        return tracks.isEmpty();
+    }
+
+    /**
+     * Track to fetch for targetLang: a manual track in that language, then any track in it, then a
+     * manual track, then whatever comes first (the player's own order)
+     */
+    public Track pick(String targetLang) {
+        if (tracks.isEmpty()) return null;
+        if (targetLang != null && !targetLang.isEmpty()) {
+            Track anyInTarget = null;
+            for (Track t : tracks) {
+                if (!t.lang.equals(targetLang) && !t.lang.startsWith(targetLang + "-")) continue;
+                if (!t.asr) return t;
+                if (anyInTarget == null) anyInTarget = t;
+            }
+            if (anyInTarget != null) return anyInTarget;
+        }
+        for (Track t : tracks) {
+            if (!t.asr) return t;
+        }
+        return tracks.get(0);
+    }
+
+    /**
+     * From the player response captionTracks array; url is resolved by the caller (it may be a
+     * signatureCipher) and passed back through urlOf
+     */
+    public static CaptionTrackManifest fromCaptionTracks(JSONArray captionTracks, UrlResolver urlOf) {
+        List<Track> tracks = new ArrayList<>();
+        if (captionTracks != null) {
+            for (int i = 0; i < captionTracks.length(); i++) {
+                JSONObject track = captionTracks.optJSONObject(i);
+                if (track == null) continue;
+                String lang = track.optString("languageCode", "");
+                if (lang.isEmpty()) continue;
+                tracks.add(new Track(lang, "asr".equals(track.optString("kind", "")), urlOf.resolve(track)));
+            }
+        }
+        return new CaptionTrackManifest(tracks);
+    }
+
+    public interface UrlResolver {
+        String resolve(JSONObject track);
+    }
+
+    public String toJson() {
+        JSONArray array = new JSONArray();
+        try {
+            for (Track t : tracks) {
+                JSONObject o = new JSONObject();
+                o.put("lang", t.lang);
+                o.put("asr", t.asr);
+                if (t.baseUrl != null) o.put("url", t.baseUrl);
+                array.put(o);
+            }
+        } catch (JSONException ignored) {}
+        return array.toString();
+    }
+
+    public static CaptionTrackManifest fromJson(String json) {
+        List<Track> tracks = new ArrayList<>();
+        try {
+            JSONArray array = new JSONArray(json);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject o = array.getJSONObject(i);
+                tracks.add(new Track(o.getString("lang"), o.optBoolean("asr"), o.optString("url", null)));
+            }
+        } catch (JSONException e) {
+            return null;
+        }
+        return new CaptionTrackManifest(tracks);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.learnify.modelclass;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Model class for quiz customization settings
@@ -123,4 +124,23 @@ public class QuizSettings implements Serializable {
         return "Generate ALL quiz content (questions, options, answers) in " + 
                language.toUpperCase() + " language.";
     }
+
+    /**
+     * Same quiz request: everything that shapes the prompt (languageCode is not always filled in)
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QuizSettings)) return false;
+        QuizSettings other = (QuizSettings) o;
+        return numberOfQuestions == other.numberOfQuestions
+                && difficulty == other.difficulty
+                && includeCodingQuestions == other.includeCodingQuestions
+                && Objects.equals(language, other.language);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(numberOfQuestions, difficulty, includeCodingQuestions, language);
+    }
 }
@@ -0,0 +1,150 @@
+package com.example.learnify.modelclass;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Transcript text plus per-segment timing.
+ *
+ * Segments are stored as parallel int arrays (start, duration, offset into the text) instead of
+ * one object per caption line, so an hour-long video stays a few KB and lookups by player time
+ * or by text offset are a binary search.
+ */
+public class TimedTranscript {
+
+    private final String text;
+    private final int[] startMs;
+    private final int[] durationMs;
+    private final int[] textStart;
+    private final int count;
+
+    private TimedTranscript(String text, int[] startMs, int[] durationMs, int[] textStart, int count) {
+        this.text = text;
+        this.startMs = startMs;
+        this.durationMs = durationMs;
+        this.textStart = textStart;
+        this.count = count;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getStartMs(int index) {
+        return startMs[index];
+    }
+
+    public int getDurationMs(int index) {
+        return durationMs[index];
+    }
+
+    public int getTextStart(int index) {
+        return textStart[index];
+    }
+
+    public int getTextEnd(int index) {
+        // Segments are joined with one space
+        return index + 1 < count ? textStart[index + 1] - 1 : text.length();
+    }
+
+    public String getSegmentText(int index) {
+        return text.substring(getTextStart(index), getTextEnd(index));
+    }
+
+    /**
+     * Segment playing at timeMs: the last one starting at or before it, -1 before the first
+     */
+    public int segmentAt(long timeMs) {
+        return floorIndex(startMs, count, timeMs);
+    }
+
+    /**
+     * Segment containing the character at offset in getText(), -1 before the first
+     */
+    public int segmentAtOffset(int offset) {
+        return floorIndex(textStart, count, offset);
+    }
+
+    private static int floorIndex(int[] values, int size, long key) {
+        int lo = 0;
+        int hi = size - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeInt(startMs[i]);
+            out.writeInt(durationMs[i]);
+            out.writeInt(textStart[i]);
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static TimedTranscript readFrom(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        int[] startMs = new int[count];
+        int[] durationMs = new int[count];
+        int[] textStart = new int[count];
+        for (int i = 0; i < count; i++) {
+            startMs[i] = in.readInt();
+            durationMs[i] = in.readInt();
+            textStart[i] = in.readInt();
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new TimedTranscript(new String(bytes, StandardCharsets.UTF_8), startMs, durationMs, textStart, count);
+    }
+
+    /**
+     * Collects segments in playback order
+     */
+    public static class Builder {
+        private final StringBuilder text = new StringBuilder();
+        private int[] startMs = new int[64];
+        private int[] durationMs = new int[64];
+        private int[] textStart = new int[64];
+        private int count = 0;
+
+        public Builder add(int start, int duration, String segment) {
+            if (segment == null || segment.isEmpty()) return this;
+            if (count == startMs.length) {
+                int capacity = count * 2;
+                startMs = Arrays.copyOf(startMs, capacity);
+                durationMs = Arrays.copyOf(durationMs, capacity);
+                textStart = Arrays.copyOf(textStart, capacity);
+            }
+            if (text.length() > 0) text.append(' ');
+            startMs[count] = start;
+            durationMs[count] = duration;
+            textStart[count] = text.length();
+            text.append(segment);
+            count++;
+            return this;
+        }
+
+        public TimedTranscript build() {
+            return new TimedTranscript(text.toString(), Arrays.copyOf(startMs, count),
+                    Arrays.copyOf(durationMs, count), Arrays.copyOf(textStart, count), count);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Batch ingestion of several YouTube videos into one quiz input.
+ *
+ * Input is either a playlist link or a list of video links. Playlists are resolved to video ids
+ * from the playlist page (the first page only, about 100 videos). Transcripts are then fetched
+ * through YouTubeTranscriptService, at most maxParallel at a time. Videos without captions are
+ * skipped rather than failing the batch. Sections are released in playlist order as soon as
+ * every earlier video is done, and the combined text is delivered at the end.
+ *
+ * Each ingest returns its own Batch handle; cancelling it stops the playlist request and the
+ * transcript fetches still running for that batch only.
+ * All listener callbacks run on the main thread.
+ */
+public class BatchTranscriptIngestor {
+
+    private static final String TAG = "BatchIngestor";
+
+    public static final int DEFAULT_MAX_PARALLEL = 3;
+    public static final int DEFAULT_MAX_VIDEOS = 25;
+
+    private static final Pattern LINK = Pattern.compile("https?://\\S+|(?:www\\.)?(?:youtube\\.com|youtu\\.be)/\\S+");
+    private static final Pattern PLAYLIST_ID = Pattern.compile("[?&]list=([A-Za-z0-9_-]+)");
+    private static final Pattern PLAYLIST_VIDEO = Pattern.compile("\"videoId\":\"([A-Za-z0-9_-]{11})\"");
+    private static final int PAGE_CHUNK = 8192;
+
+    public interface Listener {
+        void onResolved(int videoCount);
+        void onVideoDone(int completed, int total, String videoId, boolean success);
+        void onSection(int index, String videoId, String transcript); // in order, skipped videos omitted
+        void onComplete(String combined, int succeeded, int failed);
+        void onError(String error);
+    }
+
+    private final YouTubeTranscriptService transcriptService;
+    private final OkHttpClient client;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final int maxParallel;
+    private final int maxVideos;
+
+    public BatchTranscriptIngestor(Context context) {
+        this(context, DEFAULT_MAX_PARALLEL, DEFAULT_MAX_VIDEOS);
+    }
+
+    public BatchTranscriptIngestor(Context context, int maxParallel, int maxVideos) {
+        this.transcriptService = new YouTubeTranscriptService(context);
+        this.client = HttpClientProvider.getInstance(context).getYouTubeClient();
+        this.maxParallel = Math.max(1, maxParallel);
+        this.maxVideos = Math.max(1, maxVideos);
+    }
+
+    /**
+     * True when the input is a playlist link or holds more than one YouTube link
+     */
+    public static boolean isBatchInput(String input) {
+        if (input == null) return false;
+        if (PLAYLIST_ID.matcher(input).find() && !input.contains("v=")) return true;
+        return findVideoLinks(input).size() > 1;
+    }
+
+    /**
+     * Distinct YouTube links in the input, in the order they appear
+     */
+    public static List<String> findVideoLinks(String input) {
+        Set<String> links = new LinkedHashSet<>();
+        Matcher m = LINK.matcher(input);
+        while (m.find()) {
+            String link = m.group().replaceAll("[,;)]+$", "");
+            if (link.contains("youtube.com") || link.contains("youtu.be")) links.add(link);
+        }
+        return new ArrayList<>(links);
+    }
+
+    public Batch ingest(String input, Listener listener) {
+        Batch batch = new Batch();
+        Matcher playlist = PLAYLIST_ID.matcher(input);
+        List<String> links = findVideoLinks(input);
+
+        if (playlist.find() && links.size() <= 1) {
+            resolvePlaylist(batch, playlist.group(1), listener);
+        } else {
+            start(batch, links, listener);
+        }
+        return batch;
+    }
+
+    /**
+     * One ingest call; its listener hears nothing after cancel()
+     */
+    public class Batch {
+        private volatile boolean cancelled = false;
+        // Guarded by this Batch
+        private Call playlistCall;
+        private Run run;
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            Call call;
+            Run running;
+            synchronized (this) {
+                if (cancelled) return;
+                cancelled = true;
+                call = playlistCall;
+                running = run;
+            }
+            Log.d(TAG, "🛑 Batch cancelled");
+            if (call != null) call.cancel();
+            if (running != null) running.cancelInFlight();
+        }
+    }
+
+    private void resolvePlaylist(Batch batch, String playlistId, Listener listener) {
+        Log.d(TAG, "📃 Resolving playlist " + playlistId);
+        Request request = new Request.Builder()
+                .url("https://www.youtube.com/playlist?list=" + playlistId)
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/120.0.0.0")
+                .header("Accept-Language", "en-US,en;q=0.9")
+                .build();
+
+        Call playlistCall = client.newCall(request);
+        synchronized (batch) {
+            if (batch.cancelled) return;
+            batch.playlistCall = playlistCall;
+        }
+        playlistCall.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (batch.cancelled) return;
+                Log.e(TAG, "❌ Playlist fetch failed", e);
+                post(batch, () -> listener.onError("Network error: " + e.getMessage()));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                List<String> links = new ArrayList<>();
+                try (Response r = response) {
+                    if (!r.isSuccessful() || r.body() == null) {
+                        post(batch, () -> listener.onError("HTTP " + r.code()));
+                        return;
+                    }
+                    for (String videoId : scanVideoIds(r.body().charStream())) {
+                        links.add("https://www.youtube.com/watch?v=" + videoId);
+                    }
+                } catch (IOException e) {
+                    if (batch.cancelled) return;
+                    Log.e(TAG, "❌ Failed reading playlist page", e);
+                    post(batch, () -> listener.onError("Network error: " + e.getMessage()));
+                    return;
+                }
+                Log.d(TAG, "📃 Playlist has " + links.size() + " videos");
+                start(batch, links, listener);
+            }
+        });
+    }
+
+    /**
+     * Video ids in page order, read in chunks and stopping once maxVideos are found
+     */
+    private List<String> scanVideoIds(Reader reader) throws IOException {
+        Set<String> ids = new LinkedHashSet<>();
+        char[] buffer = new char[PAGE_CHUNK];
+        StringBuilder window = new StringBuilder();
+        int n;
+        while (ids.size() < maxVideos && (n = reader.read(buffer)) != -1) {
+            window.append(buffer, 0, n);
+            Matcher m = PLAYLIST_VIDEO.matcher(window);
+            int consumed = 0;
+            while (m.find() && ids.size() < maxVideos) {
+                ids.add(m.group(1));
+                consumed = m.end();
+            }
+            // Keep a tail in case a match straddles two chunks
+            window.delete(0, Math.max(consumed, window.length() - 32));
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private void start(Batch batch, List<String> links, Listener listener) {
+        if (links.isEmpty()) {
+            post(batch, () -> listener.onError("No YouTube videos found"));
+            return;
+        }
+        List<String> videos = links.size() > maxVideos ? links.subList(0, maxVideos) : links;
+        Run run = new Run(batch, videos, listener);
+        synchronized (batch) {
+            if (batch.cancelled) return;
+            batch.run = run;
+        }
+        post(batch, () -> listener.onResolved(videos.size()));
+        run.start();
+    }
+
+    private void post(Batch batch, Runnable action) {
+        mainHandler.post(() -> {
+            if (!batch.cancelled) action.run();
+        });
+    }
+
+    /**
+     * State of one batch; every field is guarded by the Run's monitor
+     */
+    private class Run {
+        private final Batch batch;
+        private final List<String> links;
+        private final Listener listener;
+        private final long startedAt = System.currentTimeMillis();
+
+        private final String[] transcripts;
+        private final boolean[] finished;
+        // Callback of each launched fetch, so cancel can withdraw the ones still running
+        private final YouTubeTranscriptService.TranscriptCallback[] callbacks;
+        private int nextToLaunch = 0;
+        private int nextToRelease = 0;
+        private int completed = 0;
+        private int succeeded = 0;
+
+        Run(Batch batch, List<String> links, Listener listener) {
+            this.batch = batch;
+            this.links = links;
+            this.listener = listener;
+            this.transcripts = new String[links.size()];
+            this.finished = new boolean[links.size()];
+            this.callbacks = new YouTubeTranscriptService.TranscriptCallback[links.size()];
+        }
+
+        void start() {
+            List<Integer> toLaunch = new ArrayList<>();
+            synchronized (this) {
+                while (nextToLaunch < Math.min(maxParallel, links.size())) toLaunch.add(nextToLaunch++);
+            }
+            for (int index : toLaunch) launch(index);
+        }
+
+        private void launch(int index) {
+            String link = links.get(index);
+            YouTubeTranscriptService.TranscriptCallback callback = new YouTubeTranscriptService.TranscriptCallback() {
+                @Override
+                public void onSuccess(String transcript) {
+                    complete(index, transcript);
+                }
+
+                @Override
+                public void onError(String error) {
+                    Log.w(TAG, "⚠️ Skipping " + link + ": " + error);
+                    complete(index, null);
+                }
+            };
+            synchronized (this) {
+                callbacks[index] = callback;
+            }
+            if (batch.cancelled) return;
+            transcriptService.getTranscript(link, callback);
+        }
+
+        /**
+         * Withdraw from every fetch still running; the service stops the calls nobody else waits for
+         */
+        void cancelInFlight() {
+            List<Integer> running = new ArrayList<>();
+            synchronized (this) {
+                for (int i = 0; i < callbacks.length; i++) {
+                    if (callbacks[i] != null && !finished[i]) running.add(i);
+                }
+            }
+            for (int index : running) transcriptService.cancel(links.get(index), callbacks[index]);
+        }
+
+        private void complete(int index, String transcript) {
+            if (batch.cancelled) return;
+            int next = -1;
+            int done;
+            boolean last;
+            List<Integer> released = new ArrayList<>();
+            List<String> releasedText = new ArrayList<>();
+            synchronized (this) {
+                finished[index] = true;
+                transcripts[index] = transcript;
+                completed++;
+                if (transcript != null) succeeded++;
+                done = completed;
+                last = completed == links.size();
+                if (nextToLaunch < links.size()) next = nextToLaunch++;
+
+                while (nextToRelease < links.size() && finished[nextToRelease]) {
+                    if (transcripts[nextToRelease] != null) {
+                        released.add(nextToRelease);
+                        releasedText.add(transcripts[nextToRelease]);
+                    }
+                    nextToRelease++;
+                }
+            }
+
+            String videoId = transcriptService.extractVideoId(links.get(index));
+            int total = links.size();
+            post(batch, () -> listener.onVideoDone(done, total, videoId, transcript != null));
+            for (int k = 0; k < released.size(); k++) {
+                int i = released.get(k);
+                String id = transcriptService.extractVideoId(links.get(i));
+                String text = releasedText.get(k);
+                post(batch, () -> listener.onSection(i, id, text));
+            }
+
+            if (next >= 0) launch(next);
+            if (last) finish();
+        }
+
+        private void finish() {
+            StringBuilder combined = new StringBuilder();
+            int ok;
+            synchronized (this) {
+                for (int i = 0; i < transcripts.length; i++) {
+                    if (transcripts[i] == null) continue;
+                    if (combined.length() > 0) combined.append("\n\n");
+                    combined.append("--- Video ").append(i + 1).append(" ---\n").append(transcripts[i]);
+                }
+                ok = succeeded;
+            }
+            int failed = links.size() - ok;
+            Log.d(TAG, "✅ Batch done in " + (System.currentTimeMillis() - startedAt) + " ms: "
+                    + ok + " transcripts, " + failed + " skipped");
+
+            if (ok == 0) {
+                post(batch, () -> listener.onError("None of the " + links.size() + " videos have captions"));
+            } else {
+                String text = combined.toString();
+                post(batch, () -> listener.onComplete(text, ok, failed));
+            }
+        }
+    }
+}
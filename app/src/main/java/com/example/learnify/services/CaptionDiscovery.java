@@ -0,0 +1,205 @@
+package com.example.learnify.services;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Concurrent caption track discovery.
+ *
+ * Candidates (manual tracks, auto-generated tracks, innertube) are listed in priority order and
+ * probed in parallel, at most maxConcurrent at a time. A result is accepted as soon as every
+ * higher-priority candidate has failed, so the answer is the same one the old sequential probing
+ * would have found, just without paying for each miss in turn. Lower-priority calls still running
+ * at that point are cancelled.
+ *
+ * T is whatever a parser makes of a response body (text, or text with timing), handed back with
+ * the winning candidate. Listener callbacks arrive on an OkHttp thread, like the rest of
+ * YouTubeTranscriptService.
+ */
+class CaptionDiscovery {
+
+    private static final String TAG = "CaptionDiscovery";
+
+    interface Parser<T> {
+        T parse(String body); // the parsed transcript, or null if the body is unusable
+    }
+
+    interface Listener<T> {
+        void onFound(T result, Candidate<T> winner);
+        void onNotFound();
+    }
+
+    static class Candidate<T> {
+        final String label;
+        final String lang;
+        final Request request;
+        final Parser<T> parser;
+
+        Candidate(String label, String lang, Request request, Parser<T> parser) {
+            this.label = label;
+            this.lang = lang;
+            this.request = request;
+            this.parser = parser;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final int maxConcurrent;
+
+    CaptionDiscovery(OkHttpClient client, int maxConcurrent) {
+        this.client = client;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+    }
+
+    <T> void run(List<Candidate<T>> candidates, Listener<T> listener) {
+        new Run<>(candidates, listener).start();
+    }
+
+    /**
+     * State of one discovery; every field is guarded by the Run's monitor
+     */
+    private class Run<T> {
+        private final List<Candidate<T>> candidates;
+        private final Listener<T> listener;
+        private final long startedAt = System.currentTimeMillis();
+
+        private final Call[] calls;
+        private final List<T> results;
+        private final boolean[] finished;
+        private int nextToLaunch = 0;
+        private int running = 0;
+        private int launched = 0;
+        private boolean done = false;
+
+        Run(List<Candidate<T>> candidates, Listener<T> listener) {
+            this.candidates = candidates;
+            this.listener = listener;
+            this.calls = new Call[candidates.size()];
+            this.results = new ArrayList<>(Collections.nCopies(candidates.size(), (T) null));
+            this.finished = new boolean[candidates.size()];
+        }
+
+        void start() {
+            List<Integer> toLaunch;
+            synchronized (this) {
+                toLaunch = fill(candidates.size());
+            }
+            if (candidates.isEmpty()) {
+                listener.onNotFound();
+                return;
+            }
+            launch(toLaunch);
+        }
+
+        /**
+         * Reserve slots up to the concurrency cap; the calls are enqueued outside the lock
+         */
+        private List<Integer> fill(int limit) {
+            List<Integer> toLaunch = new ArrayList<>();
+            while (!done && running < maxConcurrent && nextToLaunch < limit) {
+                int index = nextToLaunch++;
+                running++;
+                launched++;
+                calls[index] = client.newCall(candidates.get(index).request);
+                toLaunch.add(index);
+            }
+            return toLaunch;
+        }
+
+        private void launch(List<Integer> indexes) {
+            for (int index : indexes) {
+                Candidate<T> candidate = candidates.get(index);
+                Log.d(TAG, "🔍 Probing " + candidate.label + " (" + candidate.lang + ")");
+                calls[index].enqueue(new Callback() {
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        complete(index, null);
+                    }
+
+                    @Override
+                    public void onResponse(Call call, Response response) {
+                        T result = null;
+                        try (Response r = response) {
+                            if (r.isSuccessful() && r.body() != null) {
+                                result = candidate.parser.parse(r.body().string());
+                            }
+                        } catch (Exception e) {
+                            Log.w(TAG, "Probe " + candidate.label + " (" + candidate.lang + ") failed", e);
+                        }
+                        complete(index, result);
+                    }
+                });
+            }
+        }
+
+        private void complete(int index, T result) {
+            int winner = -1;
+            boolean exhausted = false;
+            List<Integer> toLaunch;
+            List<Call> losers = new ArrayList<>();
+
+            synchronized (this) {
+                if (done) return;
+                running--;
+                finished[index] = true;
+                results.set(index, result);
+
+                // Best result whose higher-priority rivals have all failed
+                for (int i = 0; i < candidates.size(); i++) {
+                    if (!finished[i]) break;
+                    if (results.get(i) != null) {
+                        winner = i;
+                        break;
+                    }
+                }
+
+                if (winner >= 0) {
+                    done = true;
+                    for (int i = winner + 1; i < candidates.size(); i++) {
+                        if (calls[i] != null && !finished[i]) losers.add(calls[i]);
+                    }
+                    toLaunch = new ArrayList<>();
+                } else {
+                    // Found something lower down: no point starting anything below it
+                    int found = -1;
+                    for (int i = 0; i < candidates.size(); i++) {
+                        if (results.get(i) != null) {
+                            found = i;
+                            break;
+                        }
+                    }
+                    toLaunch = fill(found < 0 ? candidates.size() : found);
+                    if (found < 0 && running == 0 && nextToLaunch >= candidates.size()) {
+                        done = true;
+                        exhausted = true;
+                    }
+                }
+            }
+
+            for (Call call : losers) call.cancel();
+            long elapsed = System.currentTimeMillis() - startedAt;
+
+            if (winner >= 0) {
+                Candidate<T> c = candidates.get(winner);
+                Log.d(TAG, "⏱️ First transcript after " + elapsed + " ms: " + c.label + " (" + c.lang + "), "
+                        + launched + " probes, " + losers.size() + " cancelled");
+                listener.onFound(results.get(winner), c);
+            } else if (exhausted) {
+                Log.d(TAG, "⏱️ No captions after " + elapsed + " ms, " + launched + " probes");
+                listener.onNotFound();
+            } else {
+                launch(toLaunch);
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.learnify.services;
+
+import android.util.Log;
+
+import com.example.learnify.modelclass.QuizQuestion;
+import com.example.learnify.modelclass.QuizSettings;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Map-reduce quiz generation for documents that are too long for one prompt.
+ *
+ * The text is split into token-budgeted sections (past MAX_CHUNKS requests consecutive ones are
+ * merged and each group is compressed back to one request's budget, so the whole text is always
+ * covered), a small quiz is requested for each section with bounded parallelism, and the answers
+ * are merged, de-duplicated and trimmed to the requested question count.
+ *
+ * Input that is still arriving (a playlist being fetched) goes through open(): sections are
+ * grouped into at most MAX_CHUNKS requests, and each group is requested as soon as it is complete.
+ *
+ * All state is touched from the main thread only (QuizNetworkService posts every callback there).
+ */
+public class ChunkedQuizGenerator {
+
+    private static final String TAG = "ChunkedQuizGenerator";
+
+    // Rough size of a token for English text, good enough for budgeting
+    static final int CHARS_PER_TOKEN = 4;
+    static final int DEFAULT_CHUNK_TOKENS = 3000;
+    static final int DEFAULT_MAX_PARALLEL = 3;
+    static final int MAX_CHUNKS = 8;
+
+    private final QuizNetworkService service;
+    private final int chunkTokens;
+    private final int maxParallel;
+    private final List<Job> activeJobs = new ArrayList<>();
+
+    public ChunkedQuizGenerator(QuizNetworkService service) {
+        this(service, DEFAULT_CHUNK_TOKENS, DEFAULT_MAX_PARALLEL);
+    }
+
+    public ChunkedQuizGenerator(QuizNetworkService service, int chunkTokens, int maxParallel) {
+        this.service = service;
+        this.chunkTokens = Math.max(500, chunkTokens);
+        this.maxParallel = Math.max(1, maxParallel);
+    }
+
+    /**
+     * True if the input should go through the chunked path
+     */
+    public boolean needsChunking(String input) {
+        return input != null && input.length() / CHARS_PER_TOKEN > chunkTokens;
+    }
+
+    public void generate(String input, QuizSettings settings, QuizNetworkService.QuizCallback callback) {
+        List<String> sections = splitIntoChunks(input, chunkTokens * CHARS_PER_TOKEN);
+        List<String> chunks = mergeChunks(sections, MAX_CHUNKS);
+        Log.d(TAG, "📚 Input " + input.length() + " chars split into " + sections.size() + " sections"
+                + (chunks.size() < sections.size() ? ", merged into " + chunks.size() + " requests" : ""));
+
+        if (chunks.size() < sections.size()) {
+            // Merged groups are over budget; they go through a feed to be compressed like streamed ones
+            Job job = new Job(new ArrayList<>(), chunks.size(), settings, callback);
+            activeJobs.add(job);
+            job.start();
+            Feed feed = new Feed(job, 1);
+            for (String chunk : chunks) feed.add(chunk);
+            feed.finish();
+            return;
+        }
+
+        Job job = new Job(new ArrayList<>(chunks), chunks.size(), settings, callback);
+        job.inputClosed = true;
+        activeJobs.add(job);
+        job.start();
+    }
+
+    /**
+     * Start a job whose input arrives section by section through the returned Feed.
+     * expectedSections sets how sections are grouped and the question quota of each group;
+     * 0 when unknown (every section is then its own request).
+     */
+    public Feed open(int expectedSections, QuizSettings settings, QuizNetworkService.QuizCallback callback) {
+        int planned = Math.min(MAX_CHUNKS, Math.max(1, expectedSections));
+        int sectionsPerChunk = expectedSections > 0 ? (expectedSections + planned - 1) / planned : 1;
+        Log.d(TAG, "📚 Streamed input, " + expectedSections + " sections expected in " + planned + " requests");
+
+        Job job = new Job(new ArrayList<>(), planned, settings, callback);
+        activeJobs.add(job);
+        job.start();
+        return new Feed(job, sectionsPerChunk);
+    }
+
+    /**
+     * Stop every job started for this caller; running sections are released through the coalescer
+     */
+    public void cancel(QuizNetworkService.QuizCallback caller) {
+        for (Job job : new ArrayList<>(activeJobs)) {
+            if (QuizRequestCoalescer.rootOf(job.callback) == caller) {
+                Log.d(TAG, "🛑 Chunked job cancelled");
+                job.cancelled = true;
+                activeJobs.remove(job);
+            }
+        }
+    }
+
+    /**
+     * Input of a job started with open(). Main thread only.
+     */
+    public class Feed {
+        private final Job job;
+        private final int sectionsPerChunk;
+        private final StringBuilder buffer = new StringBuilder();
+        private int buffered = 0;
+        private int preparing = 0;
+        private boolean finished = false;
+        private String error;
+
+        Feed(Job job, int sectionsPerChunk) {
+            this.job = job;
+            this.sectionsPerChunk = sectionsPerChunk;
+        }
+
+        public void add(String section) {
+            if (finished || job.cancelled || section == null || section.trim().isEmpty()) return;
+            if (buffer.length() > 0) buffer.append("\n\n");
+            buffer.append(section.trim());
+            if (++buffered >= sectionsPerChunk) flush();
+        }
+
+        /**
+         * No more sections; the quiz is finished once the requested groups are done
+         */
+        public void finish() {
+            finish(null);
+        }
+
+        /**
+         * The input source failed; reported as the error if no section made it into the quiz
+         */
+        public void fail(String error) {
+            finish(error);
+        }
+
+        private void finish(String error) {
+            if (finished) return;
+            finished = true;
+            this.error = error;
+            flush();
+            if (preparing == 0) job.close(error);
+        }
+
+        private void flush() {
+            if (buffered == 0) return;
+            String group = buffer.toString();
+            buffer.setLength(0);
+            buffered = 0;
+
+            // Groups are trimmed to one request's budget off the main thread, in the order they were added
+            preparing++;
+            service.compressAsync(group, chunkTokens, text -> {
+                preparing--;
+                job.addChunk(text);
+                if (finished && preparing == 0) job.close(error);
+            });
+        }
+    }
+
+    /**
+     * One map-reduce run
+     */
+    private class Job {
+        private final List<String> chunks; // grows while the input is open
+        private final int plannedChunks;
+        private final QuizSettings settings;
+        private final QuizNetworkService.QuizCallback callback;
+        private final QuizNetworkService.QuizStreamCallback streamCallback;
+
+        private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+        private final int quotaPerChunk;
+        private final List<QuizQuestion> accepted = new ArrayList<>();
+        private final List<QuizQuestion> reserve = new ArrayList<>();
+        private final Set<String> seen = new HashSet<>();
+        private final List<String> topics = new ArrayList<>();
+
+        private int running = 0;
+        private int completed = 0;
+        private String lastError;
+        private boolean inputClosed = false;
+        private boolean cancelled = false;
+
+        Job(List<String> chunks, int plannedChunks, QuizSettings settings, QuizNetworkService.QuizCallback callback) {
+            this.chunks = chunks;
+            this.plannedChunks = Math.max(1, plannedChunks);
+            this.settings = settings;
+            this.callback = callback;
+            this.streamCallback = callback instanceof QuizNetworkService.QuizStreamCallback
+                    ? (QuizNetworkService.QuizStreamCallback) callback : null;
+            this.quotaPerChunk = (int) Math.ceil(settings.getNumberOfQuestions() / (double) this.plannedChunks);
+            for (int i = 0; i < chunks.size(); i++) {
+                pending.add(i);
+                topics.add(null);
+            }
+        }
+
+        void start() {
+            callback.onProgress(0, totalChunks());
+            launchPending();
+        }
+
+        void addChunk(String chunk) {
+            if (cancelled || inputClosed) return;
+            chunks.add(chunk);
+            topics.add(null);
+            pending.add(chunks.size() - 1);
+            Log.d(TAG, "📥 Section " + chunks.size() + " arrived (" + chunk.length() + " chars)");
+            launchPending();
+        }
+
+        void close(String error) {
+            if (cancelled || inputClosed) return;
+            inputClosed = true;
+            if (lastError == null) lastError = error;
+            if (running == 0 && pending.isEmpty()) finish();
+        }
+
+        private int totalChunks() {
+            return inputClosed ? chunks.size() : Math.max(plannedChunks, chunks.size());
+        }
+
+        private void launchPending() {
+            while (running < maxParallel && !pending.isEmpty()) {
+                launch(pending.poll());
+            }
+        }
+
+        private void launch(int index) {
+            running++;
+            // Ask for one extra per section so duplicates can be dropped without running short
+            QuizSettings chunkSettings = new QuizSettings(quotaPerChunk + 1, settings.getDifficulty(),
+                    settings.isIncludeCodingQuestions(), settings.getLanguage(), settings.getLanguageCode());
+
+            Log.d(TAG, "🚀 Section " + (index + 1) + "/" + totalChunks() + " started");
+            service.requestQuiz(chunks.get(index), chunkSettings, new SectionCallback(this, index));
+        }
+
+        private void merge(List<QuizQuestion> quizQuestions) {
+            if (quizQuestions == null) return;
+            int taken = 0;
+            for (QuizQuestion q : quizQuestions) {
+                if (q == null || q.questionText == null || !seen.add(normalize(q.questionText))) continue;
+
+                if (taken < quotaPerChunk && accepted.size() < settings.getNumberOfQuestions()) {
+                    accepted.add(q);
+                    taken++;
+                    if (streamCallback != null) streamCallback.onQuestion(q);
+                } else {
+                    reserve.add(q);
+                }
+            }
+        }
+
+        private void onChunkDone(int index) {
+            if (cancelled) return;
+            running--;
+            completed++;
+            Log.d(TAG, "✅ Section " + (index + 1) + " done (" + completed + "/" + totalChunks() + ")");
+            callback.onProgress(completed, totalChunks());
+
+            if (!pending.isEmpty()) {
+                launch(pending.poll());
+            } else if (running == 0 && inputClosed) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            activeJobs.remove(this);
+
+            // Sections that failed or came up short are covered from the spare questions
+            for (QuizQuestion q : reserve) {
+                if (accepted.size() >= settings.getNumberOfQuestions()) break;
+                accepted.add(q);
+                if (streamCallback != null) streamCallback.onQuestion(q);
+            }
+
+            if (accepted.isEmpty()) {
+                callback.onError(lastError != null ? lastError : "Empty response from AI");
+                return;
+            }
+
+            String topic = null;
+            for (String t : topics) {
+                if (t != null && !t.isEmpty()) {
+                    topic = t;
+                    break;
+                }
+            }
+
+            Log.d(TAG, "🎉 Merged " + accepted.size() + " questions from " + chunks.size() + " sections");
+            callback.onSuccess(new ArrayList<>(accepted), topic);
+        }
+    }
+
+    /**
+     * Result of one section; wraps the job's callback so a cancel on the caller reaches it
+     */
+    private static class SectionCallback implements QuizNetworkService.QuizCallback, QuizRequestCoalescer.WrappingCallback {
+        private final Job job;
+        private final int index;
+
+        SectionCallback(Job job, int index) {
+            this.job = job;
+            this.index = index;
+        }
+
+        @Override
+        public QuizNetworkService.QuizCallback getDelegate() {
+            return job.callback;
+        }
+
+        @Override
+        public void onSuccess(List<QuizQuestion> quizQuestions, String topic) {
+            if (job.cancelled) return;
+            job.topics.set(index, topic);
+            job.merge(quizQuestions);
+            job.onChunkDone(index);
+        }
+
+        @Override
+        public void onError(String error) {
+            if (job.cancelled) return;
+            Log.w(TAG, "⚠️ Section " + (index + 1) + " failed: " + error);
+            job.lastError = error;
+            job.onChunkDone(index);
+        }
+    }
+
+    /**
+     * Split on paragraph, then sentence boundaries so that no chunk exceeds maxChars
+     */
+    static List<String> splitIntoChunks(String input, int maxChars) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String paragraph : input.split("\\n\\s*\\n")) {
+            String trimmed = paragraph.trim();
+            if (trimmed.isEmpty()) continue;
+
+            if (trimmed.length() > maxChars) {
+                for (String sentence : trimmed.split("(?<=[.!?])\\s+")) {
+                    appendPiece(chunks, current, sentence, maxChars);
+                }
+            } else {
+                appendPiece(chunks, current, trimmed, maxChars);
+            }
+        }
+
+        if (current.length() > 0) chunks.add(current.toString());
+        return chunks;
+    }
+
+    private static void appendPiece(List<String> chunks, StringBuilder current, String piece, int maxChars) {
+        if (current.length() > 0 && current.length() + piece.length() + 1 > maxChars) {
+            chunks.add(current.toString());
+            current.setLength(0);
+        }
+
+        // A single run-on sentence longer than the budget is cut hard
+        while (piece.length() > maxChars) {
+            chunks.add(piece.substring(0, maxChars));
+            piece = piece.substring(maxChars);
+        }
+
+        if (current.length() > 0) current.append('\n');
+        current.append(piece);
+    }
+
+    /**
+     * Join consecutive sections so there are at most maxChunks requests; every section is kept.
+     * Joined groups can be over one request's budget, callers compress them.
+     */
+    static List<String> mergeChunks(List<String> chunks, int maxChunks) {
+        if (chunks.size() <= maxChunks) return chunks;
+
+        List<String> merged = new ArrayList<>();
+        for (int group = 0; group < maxChunks; group++) {
+            // Same split as spreading n sections over maxChunks evenly, front groups take the remainder
+            int from = (int) ((long) group * chunks.size() / maxChunks);
+            int to = (int) ((long) (group + 1) * chunks.size() / maxChunks);
+            merged.add(String.join("\n\n", chunks.subList(from, to)));
+        }
+        return merged;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", "");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+import android.util.Xml;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Plain text of a .docx without building Apache POI's document model.
+ *
+ * The file is read as a zip stream up to word/document.xml, which is pull-parsed for the text runs
+ * of each paragraph (tabs and line breaks kept, one line per paragraph). Reading stops right after
+ * it, so media parts stored later in the archive are never inflated. Of an mc:AlternateContent
+ * block (text boxes, shapes) only the mc:Choice is read; the mc:Fallback repeats the same text
+ * for older readers. Headers, footers, footnotes and comments live in other parts and are not
+ * included.
+ */
+public class DocxStreamExtractor {
+
+    private static final String TAG = "DocxStreamExtractor";
+    private static final String DOCUMENT_PART = "word/document.xml";
+    private static final String MARKUP_COMPATIBILITY = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+    private final Context context;
+
+    public DocxStreamExtractor(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public String extract(Uri uri) throws IOException {
+        long start = System.currentTimeMillis();
+        try (InputStream is = context.getContentResolver().openInputStream(uri)) {
+            if (is == null) throw new IOException("Cannot open " + uri);
+            String text = extract(is, Xml.newPullParser());
+            Log.d(TAG, "✅ " + text.length() + " chars in " + (System.currentTimeMillis() - start) + " ms");
+            return text;
+        }
+    }
+
+    /**
+     * Body text of the .docx read from is; parser is any namespace-aware XmlPullParser
+     */
+    static String extract(InputStream is, XmlPullParser parser) throws IOException {
+        ZipInputStream zip = new ZipInputStream(is);
+        ZipEntry entry;
+        int skipped = 0;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!DOCUMENT_PART.equals(entry.getName())) {
+                skipped++;
+                continue;
+            }
+            Log.d(TAG, "📄 " + skipped + " parts skipped before the body");
+            return readDocument(zip, parser);
+        }
+        throw new IOException("Not a Word document: no " + DOCUMENT_PART);
+    }
+
+    private static String readDocument(ZipInputStream zip, XmlPullParser parser) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try {
+            parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+            // The parser must not close the zip stream under us
+            parser.setInput(new FilterInputStream(zip) {
+                @Override
+                public void close() {}
+            }, null);
+
+            boolean inText = false;
+            int event;
+            while ((event = parser.next()) != XmlPullParser.END_DOCUMENT) {
+                if (event == XmlPullParser.START_TAG) {
+                    if (MARKUP_COMPATIBILITY.equals(parser.getNamespace()) && "Fallback".equals(parser.getName())) {
+                        skipSubtree(parser);
+                        continue;
+                    }
+                    if (!isWordprocessing(parser)) continue;
+                    switch (parser.getName()) {
+                        case "t":
+                            inText = true;
+                            break;
+                        case "tab":
+                            text.append('\t');
+                            break;
+                        case "br":
+                        case "cr":
+                            text.append('\n');
+                            break;
+                    }
+                } else if (event == XmlPullParser.END_TAG) {
+                    if (!isWordprocessing(parser)) continue;
+                    if ("t".equals(parser.getName())) {
+                        inText = false;
+                    } else if ("p".equals(parser.getName())) {
+                        text.append('\n');
+                    }
+                } else if (event == XmlPullParser.TEXT && inText) {
+                    text.append(parser.getText());
+                }
+            }
+        } catch (XmlPullParserException e) {
+            throw new IOException("Malformed " + DOCUMENT_PART, e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Move past the end tag of the element the parser is on
+     */
+    private static void skipSubtree(XmlPullParser parser) throws XmlPullParserException, IOException {
+        int depth = parser.getDepth();
+        int event;
+        while ((event = parser.next()) != XmlPullParser.END_DOCUMENT) {
+            if (event == XmlPullParser.END_TAG && parser.getDepth() == depth) return;
+        }
+    }
+
+    /**
+     * Transitional and Strict OOXML use different namespaces for the same w: elements
+     */
+    private static boolean isWordprocessing(XmlPullParser parser) {
+        String ns = parser.getNamespace();
+        return ns != null && ns.contains("wordprocessingml");
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Extracted text of uploaded documents and images, keyed by the file's content.
+ *
+ * The key is a 64-bit FNV-1a hash of the bytes plus their length, computed in one pass over the
+ * stream, so the same file picked again (from any folder or app) skips PDFBox, the DOCX parser or
+ * ML Kit. Keys also carry EXTRACTOR_VERSION, so text from older extractors is not reused. Only
+ * complete extractions belong here, callers must not put text of a run that stopped part-way.
+ * Entries are gzip files in the app cache dir, trimmed least-recently-used past a byte cap, with
+ * a small in-memory LruCache in front. Content never goes stale, so there is no TTL.
+ */
+public class ExtractionCache {
+
+    private static final String TAG = "ExtractionCache";
+    private static final String DIR_NAME = "extractions";
+    private static final long DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+    private static final int MEMORY_CHARS = 512 * 1024;
+    // Bump whenever an extractor's output changes; entries under older versions age out of the LRU
+    private static final int EXTRACTOR_VERSION = 1;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static ExtractionCache instance;
+
+    private final Context context;
+    private final File dir;
+    private final long maxBytes;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final LruCache<String, String> memory = new LruCache<String, String>(MEMORY_CHARS) {
+        @Override
+        protected int sizeOf(String key, String value) {
+            return value.length();
+        }
+    };
+
+    public interface LookupCallback {
+        void onResult(String key, String text); // key null if the file could not be read, text null on a miss
+    }
+
+    private ExtractionCache(Context context, long maxBytes) {
+        this.context = context;
+        this.dir = new File(context.getCacheDir(), DIR_NAME);
+        this.maxBytes = maxBytes;
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create cache dir " + dir);
+        }
+    }
+
+    public static synchronized ExtractionCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ExtractionCache(context.getApplicationContext(), DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    /**
+     * Content key for the file behind uri, or null if it cannot be read. Reads the whole file:
+     * call off the main thread.
+     */
+    public String keyFor(Uri uri) {
+        long start = System.currentTimeMillis();
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            if (in == null) return null;
+            long hash = FNV_OFFSET;
+            long length = 0;
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                for (int i = 0; i < n; i++) {
+                    hash ^= buffer[i] & 0xff;
+                    hash *= FNV_PRIME;
+                }
+                length += n;
+            }
+            String key = "v" + EXTRACTOR_VERSION + "-" + Long.toHexString(hash) + "-" + Long.toHexString(length);
+            Log.d(TAG, "🔑 Hashed " + length / 1024 + " KB in " + (System.currentTimeMillis() - start) + " ms");
+            return key;
+        } catch (IOException | SecurityException e) {
+            Log.w(TAG, "Could not hash " + uri, e);
+            return null;
+        }
+    }
+
+    /**
+     * Cached text for key, or null. Reads from disk on a memory miss: call off the main thread.
+     */
+    public String get(String key) {
+        if (key == null) return null;
+        String cached = memory.get(key);
+        if (cached != null) {
+            Log.d(TAG, "⚡ Memory hit " + key);
+            return cached;
+        }
+
+        byte[] bytes = read(key);
+        if (bytes == null) return null;
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        Log.d(TAG, "💾 Disk hit " + key);
+        memory.put(key, text);
+        return text;
+    }
+
+    /**
+     * keyFor + get on the cache's background thread; the callback runs on that thread
+     */
+    public void lookup(Uri uri, LookupCallback callback) {
+        executor.execute(() -> {
+            String key = keyFor(uri);
+            callback.onResult(key, get(key));
+        });
+    }
+
+    public void put(String key, String text) {
+        if (key == null || text == null || text.trim().isEmpty()) return;
+        memory.put(key, text);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        executor.execute(() -> write(key, bytes));
+    }
+
+    private void write(String key, byte[] payload) {
+        File tmp = new File(dir, key + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(tmp))) {
+            out.write(payload);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to write extraction " + key, e);
+            tmp.delete();
+            return;
+        }
+
+        if (!tmp.renameTo(new File(dir, key + ".gz"))) {
+            tmp.delete();
+            return;
+        }
+        trimToSize();
+    }
+
+    private byte[] read(String key) {
+        File file = new File(dir, key + ".gz");
+        if (!file.exists()) return null;
+
+        try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, n);
+            }
+            // lastModified doubles as the LRU access time
+            file.setLastModified(System.currentTimeMillis());
+            return bytes.toByteArray();
+        } catch (Exception e) {
+            Log.w(TAG, "Dropping unreadable extraction " + key, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void trimToSize() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".gz"));
+        if (files == null) return;
+
+        long total = 0;
+        for (File f : files) total += f.length();
+        if (total <= maxBytes) return;
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File f : files) {
+            if (total <= maxBytes) break;
+            total -= f.length();
+            f.delete();
+            Log.d(TAG, "🧹 Evicted " + f.getName());
+        }
+    }
+}
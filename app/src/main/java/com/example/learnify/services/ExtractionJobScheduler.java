@@ -0,0 +1,196 @@
+package com.example.learnify.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs text extraction jobs for one screen, one at a time.
+ *
+ * Submitting a job cancels the owner's previous one, and {@link #cancelAll()} is meant for
+ * onDestroy. Cancellation is cooperative: tasks poll {@link Job#isCancelled()} or register a hook
+ * that stops their extractor. Jobs from all owners share a small bounded pool, and results,
+ * progress and errors of cancelled jobs are never delivered. Listener calls arrive on the main
+ * thread.
+ */
+public class ExtractionJobScheduler {
+
+    private static final String TAG = "ExtractionJobs";
+    private static final int MAX_THREADS = 2;
+    private static final int MAX_QUEUED = 4;
+
+    private static final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(MAX_QUEUED));
+
+    static {
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private Job current;
+
+    // Totals for this scheduler, see getStats()
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+    private final AtomicLong totalRunMs = new AtomicLong();
+
+    public interface Task {
+        String run(Job job) throws Exception;
+    }
+
+    public interface Listener {
+        void onProgress(int done, int total);
+        void onComplete(String text, JobMetrics metrics);
+        void onError(Exception e);
+    }
+
+    public static class JobMetrics {
+        public final String label;
+        public final long queuedMs; // submit → start
+        public final long runMs;    // start → result
+
+        JobMetrics(String label, long queuedMs, long runMs) {
+            this.label = label;
+            this.queuedMs = queuedMs;
+            this.runMs = runMs;
+        }
+
+        @Override
+        public String toString() {
+            return label + ": queued " + queuedMs + " ms, ran " + runMs + " ms";
+        }
+    }
+
+    public class Job {
+        private final int id;
+        private final String label;
+        private final Listener listener;
+        private final long submittedAt = System.currentTimeMillis();
+        private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+        private volatile boolean cancelled = false;
+
+        Job(int id, String label, Listener listener) {
+            this.id = id;
+            this.label = label;
+            this.listener = listener;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            for (Runnable hook : cancelHooks) hook.run();
+        }
+
+        /**
+         * Run hook when the job is cancelled, or right away if it already is
+         */
+        public void onCancel(Runnable hook) {
+            cancelHooks.add(hook);
+            if (cancelled) hook.run();
+        }
+
+        public void reportProgress(int done, int total) {
+            if (cancelled) return;
+            mainHandler.post(() -> {
+                if (!cancelled) listener.onProgress(done, total);
+            });
+        }
+    }
+
+    /**
+     * Queue task, cancelling whatever this scheduler was running before
+     */
+    public synchronized Job submit(String label, Task task, Listener listener) {
+        if (current != null) {
+            Log.d(TAG, "⏹️ Superseding job " + current.id + " (" + current.label + ")");
+            current.cancel();
+        }
+
+        Job job = new Job(nextId.getAndIncrement(), label, listener);
+        current = job;
+        try {
+            pool.execute(() -> runJob(job, task));
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "❌ Extraction queue full, rejecting " + label);
+            failed.incrementAndGet();
+            mainHandler.post(() -> listener.onError(e));
+        }
+        return job;
+    }
+
+    public synchronized void cancelAll() {
+        if (current != null) {
+            current.cancel();
+            current = null;
+        }
+    }
+
+    private void runJob(Job job, Task task) {
+        long startedAt = System.currentTimeMillis();
+        long queuedMs = startedAt - job.submittedAt;
+        if (job.isCancelled()) {
+            cancelled.incrementAndGet();
+            Log.d(TAG, "⏭️ Job " + job.id + " cancelled before start");
+            return;
+        }
+
+        String text = null;
+        Exception error = null;
+        try {
+            text = task.run(job);
+        } catch (Exception e) {
+            error = e;
+        }
+
+        long runMs = System.currentTimeMillis() - startedAt;
+        synchronized (this) {
+            if (current == job) current = null;
+        }
+
+        if (job.isCancelled()) {
+            cancelled.incrementAndGet();
+            Log.d(TAG, "⏹️ Job " + job.id + " stopped after " + runMs + " ms");
+            return;
+        }
+
+        JobMetrics metrics = new JobMetrics(job.label, queuedMs, runMs);
+        if (error != null) {
+            failed.incrementAndGet();
+            Log.e(TAG, "❌ Job " + job.id + " failed, " + metrics, error);
+            Exception e = error;
+            mainHandler.post(() -> {
+                if (!job.isCancelled()) job.listener.onError(e);
+            });
+            return;
+        }
+
+        completed.incrementAndGet();
+        totalRunMs.addAndGet(runMs);
+        Log.d(TAG, "✅ Job " + job.id + " done, " + metrics);
+        String result = text;
+        mainHandler.post(() -> {
+            if (!job.isCancelled()) job.listener.onComplete(result, metrics);
+        });
+    }
+
+    public String getStats() {
+        int done = completed.get();
+        return "completed=" + done + ", failed=" + failed.get() + ", cancelled=" + cancelled.get()
+                + ", avgRunMs=" + (done > 0 ? totalRunMs.get() / done : 0);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.learnify.services;
+
+import android.util.Log;
+
+import com.example.learnify.groqapihelpers.QuizPromptTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * On-device extractive compression of quiz input.
+ *
+ * Sentences are scored with TF-IDF (each sentence is treated as a document) and the most
+ * informative ones are kept, in their original order, until the token budget is used up.
+ * Transcript filler ("[Music]", "um", repeated lines) scores low or is dropped as a duplicate.
+ * Text that already fits the budget is returned unchanged.
+ */
+public class ExtractiveSummarizer {
+
+    private static final String TAG = "ExtractiveSummarizer";
+
+    // Large enough that ordinary notes are untouched; long inputs still go through chunking after this
+    public static final int DEFAULT_TOKEN_BUDGET = 12000;
+
+    // Auto-generated captions have no punctuation, so long runs are cut into windows of this many words
+    private static final int MAX_SENTENCE_WORDS = 40;
+    private static final int MIN_SENTENCE_WORDS = 4;
+
+    private static final Pattern SENTENCE_BREAK = Pattern.compile("(?<=[.!?。؟])\\s+|\\n+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int tokenBudget;
+
+    public ExtractiveSummarizer() {
+        this(DEFAULT_TOKEN_BUDGET);
+    }
+
+    public ExtractiveSummarizer(int tokenBudget) {
+        this.tokenBudget = Math.max(500, tokenBudget);
+    }
+
+    public int getTokenBudget() {
+        return tokenBudget;
+    }
+
+    public boolean needsCompression(String text) {
+        return text != null && QuizPromptTemplate.estimateTokens(text) > tokenBudget;
+    }
+
+    /**
+     * Trim text to the token budget keeping the highest scoring sentences
+     */
+    public String compress(String text) {
+        if (!needsCompression(text)) return text;
+        long start = System.nanoTime();
+
+        List<String> sentences = splitSentences(text);
+        int n = sentences.size();
+
+        // Term frequencies per sentence and document frequencies across sentences
+        List<Map<String, Integer>> termCounts = new ArrayList<>(n);
+        List<String> signatures = new ArrayList<>(n);
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (String sentence : sentences) {
+            List<String> terms = terms(sentence);
+            signatures.add(String.join(" ", terms));
+
+            Map<String, Integer> counts = new HashMap<>();
+            for (String term : terms) {
+                Integer c = counts.get(term);
+                counts.put(term, c == null ? 1 : c + 1);
+            }
+            for (String term : counts.keySet()) {
+                Integer df = documentFrequency.get(term);
+                documentFrequency.put(term, df == null ? 1 : df + 1);
+            }
+            termCounts.add(counts);
+        }
+
+        double[] scores = new double[n];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            Map<String, Integer> counts = termCounts.get(i);
+            int words = 0;
+            for (int c : counts.values()) words += c;
+
+            // Short fragments and repeats (captions loop a lot) are never worth their tokens
+            if (words < MIN_SENTENCE_WORDS || !seen.add(signatures.get(i))) {
+                scores[i] = -1;
+                continue;
+            }
+
+            double score = 0;
+            for (Map.Entry<String, Integer> e : counts.entrySet()) {
+                double idf = Math.log((double) n / documentFrequency.get(e.getKey()));
+                score += e.getValue() * idf;
+            }
+            // Length-normalized so long sentences do not win on size alone
+            scores[i] = score / Math.sqrt(words);
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        boolean[] keep = new boolean[n];
+        int used = 0;
+        for (int i : order) {
+            if (scores[i] < 0) break;
+            int cost = QuizPromptTemplate.estimateTokens(sentences.get(i)) + 1;
+            if (used + cost > tokenBudget) continue;
+            keep[i] = true;
+            used += cost;
+        }
+
+        StringBuilder out = new StringBuilder(used * 4);
+        for (int i = 0; i < n; i++) {
+            if (!keep[i]) continue;
+            if (out.length() > 0) out.append(' ');
+            out.append(sentences.get(i));
+        }
+
+        double millis = (System.nanoTime() - start) / 1e6;
+        Log.d(TAG, String.format(Locale.US, "✂️ Compressed %d → %d chars (%.0f%%, %d sentences) in %.1f ms, %.1f ms per 100 KB",
+                text.length(), out.length(), 100.0 * out.length() / text.length(), n,
+                millis, millis * 100 * 1024 / text.length()));
+        return out.toString();
+    }
+
+    static List<String> splitSentences(String text) {
+        List<String> sentences = new ArrayList<>();
+        for (String piece : SENTENCE_BREAK.split(text)) {
+            String trimmed = piece.trim();
+            if (trimmed.isEmpty()) continue;
+
+            String[] words = WHITESPACE.split(trimmed);
+            if (words.length <= MAX_SENTENCE_WORDS) {
+                sentences.add(trimmed);
+                continue;
+            }
+            for (int i = 0; i < words.length; i += MAX_SENTENCE_WORDS) {
+                int end = Math.min(words.length, i + MAX_SENTENCE_WORDS);
+                sentences.add(String.join(" ", Arrays.asList(words).subList(i, end)));
+            }
+        }
+        return sentences;
+    }
+
+    /**
+     * Lower-cased words of three or more letters/digits; works for any script
+     */
+    private static List<String> terms(String sentence) {
+        List<String> terms = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= sentence.length(); i++) {
+            char c = i < sentence.length() ? sentence.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                if (word.length() >= 3) terms.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.learnify.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming scan of an HTML page's meta tags.
+ *
+ * Characters are read in small chunks and only tags are looked at; script bodies are skipped, and
+ * a '>' inside a quoted attribute value does not end its tag.
+ * Reading stops at the first closing head tag, or as soon as title, description and keywords
+ * have all been seen, so the rest of a 1 MB+ watch page is never downloaded.
+ */
+class HeadMetaScanner {
+
+    private static final int CHUNK_SIZE = 4096;
+    // Descriptions are capped at 5000 chars by YouTube, plus escaping
+    private static final int MAX_TAG_LENGTH = 16 * 1024;
+    private static final String SCRIPT_END = "</script";
+
+    static class Result {
+        final String title;
+        final String description;
+        final String keywords;
+        final long charsRead;
+
+        Result(String title, String description, String keywords, long charsRead) {
+            this.title = title;
+            this.description = description;
+            this.keywords = keywords;
+            this.charsRead = charsRead;
+        }
+    }
+
+    private HeadMetaScanner() {}
+
+    static Result scan(Reader reader) throws IOException {
+        Map<String, String> meta = new HashMap<>();
+        StringBuilder tag = new StringBuilder(256);
+        char[] buffer = new char[CHUNK_SIZE];
+        boolean inTag = false;
+        char quote = 0; // quote of the attribute value being read, 0 outside one
+        char lastInTag = 0; // last non-whitespace char of the tag outside quotes
+        boolean inScript = false;
+        int scriptEndMatched = 0;
+        long charsRead = 0;
+        int n;
+
+        read:
+        while ((n = reader.read(buffer)) != -1) {
+            charsRead += n;
+            for (int i = 0; i < n; i++) {
+                char c = buffer[i];
+
+                if (inScript) {
+                    // Scripts can hold '<' and '>' freely, only their end tag matters
+                    if (Character.toLowerCase(c) == SCRIPT_END.charAt(scriptEndMatched)) {
+                        if (++scriptEndMatched == SCRIPT_END.length()) {
+                            inScript = false;
+                            scriptEndMatched = 0;
+                        }
+                    } else {
+                        scriptEndMatched = c == '<' ? 1 : 0;
+                    }
+                    continue;
+                }
+
+                if (!inTag) {
+                    if (c == '<') {
+                        inTag = true;
+                        quote = 0;
+                        lastInTag = 0;
+                        tag.setLength(0);
+                    }
+                    continue;
+                }
+
+                if (quote != 0 || c != '>') {
+                    if (quote != 0) {
+                        if (c == quote) quote = 0;
+                    } else if ((c == '"' || c == '\'') && lastInTag == '=') {
+                        // Only after '=', a stray apostrophe elsewhere must not swallow the page
+                        quote = c;
+                    }
+                    if (quote == 0 && !Character.isWhitespace(c)) lastInTag = c;
+                    if (tag.length() < MAX_TAG_LENGTH) tag.append(c);
+                    continue;
+                }
+
+                inTag = false;
+                if (startsWithIgnoreCase(tag, "/head") || startsWithIgnoreCase(tag, "body")) break read;
+                if (startsWithIgnoreCase(tag, "script") && tag.charAt(tag.length() - 1) != '/') {
+                    inScript = true;
+                } else if (startsWithIgnoreCase(tag, "meta")) {
+                    readMeta(tag, meta);
+                    if (meta.containsKey("title") && meta.containsKey("description") && meta.containsKey("keywords")) {
+                        break read;
+                    }
+                }
+            }
+        }
+
+        return new Result(
+                first(meta, "title", "og:title"),
+                first(meta, "description", "og:description"),
+                first(meta, "keywords", null),
+                charsRead);
+    }
+
+    /**
+     * Record name/property → content of one meta tag, keeping the first value seen for a name
+     */
+    private static void readMeta(CharSequence tag, Map<String, String> meta) {
+        String name = null;
+        String content = null;
+        int i = 4; // after "meta"
+        int length = tag.length();
+
+        while (i < length) {
+            while (i < length && !Character.isLetter(tag.charAt(i))) i++;
+            int keyStart = i;
+            while (i < length && tag.charAt(i) != '=' && !Character.isWhitespace(tag.charAt(i))) i++;
+            String key = tag.subSequence(keyStart, i).toString().toLowerCase(Locale.US);
+            if (i >= length || tag.charAt(i) != '=') continue;
+            i++;
+
+            String value;
+            if (i < length && (tag.charAt(i) == '"' || tag.charAt(i) == '\'')) {
+                char quote = tag.charAt(i++);
+                int valueStart = i;
+                while (i < length && tag.charAt(i) != quote) i++;
+                value = tag.subSequence(valueStart, i).toString();
+                i++;
+            } else {
+                int valueStart = i;
+                while (i < length && !Character.isWhitespace(tag.charAt(i))) i++;
+                value = tag.subSequence(valueStart, i).toString();
+            }
+
+            if (key.equals("name") || key.equals("property") || key.equals("itemprop")) {
+                name = value.toLowerCase(Locale.US);
+            } else if (key.equals("content")) {
+                content = value;
+            }
+        }
+
+        if (name != null && content != null && !meta.containsKey(name)) {
+            meta.put(name, TranscriptNormalizer.decodeEntities(content).trim());
+        }
+    }
+
+    private static String first(Map<String, String> meta, String key, String fallbackKey) {
+        String value = meta.get(key);
+        if ((value == null || value.isEmpty()) && fallbackKey != null) value = meta.get(fallbackKey);
+        return value != null ? value : "";
+    }
+
+    private static boolean startsWithIgnoreCase(CharSequence s, String prefix) {
+        if (s.length() < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(s.charAt(i)) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.learnify.groqapihelpers.GroqRateLimiter;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Process-wide HTTP layer.
+ *
+ * Every service derives its client from one base OkHttpClient through newBuilder(), so they all
+ * share the same connection pool, dispatcher and disk cache. A connection (and its TLS handshake)
+ * to api.groq.com or www.youtube.com is made once and reused by whichever service asks next.
+ * Only timeouts and interceptors differ per service.
+ *
+ * gzip needs nothing here: OkHttp asks for it and decompresses transparently as long as callers
+ * do not set Accept-Encoding themselves.
+ */
+public class HttpClientProvider {
+
+    private static final String TAG = "HttpClientProvider";
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_BYTES = 10 * 1024 * 1024;
+
+    private static HttpClientProvider instance;
+
+    private final OkHttpClient baseClient;
+    private final OkHttpClient groqClient;
+    private final OkHttpClient youTubeClient;
+    private final OkHttpClient metadataClient;
+
+    private HttpClientProvider(Context context) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(32);
+        // Transcript discovery and chunked quiz generation both fan out to a single host
+        dispatcher.setMaxRequestsPerHost(8);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(8, 5, TimeUnit.MINUTES))
+                // HTTP/2 is negotiated over ALPN, parallel requests to one host share a socket
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .retryOnConnectionFailure(true)
+                .followRedirects(true)
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS);
+
+        // Without a context (plain Java callers) there is no cache dir, everything else is shared
+        if (context != null) {
+            builder.cache(new Cache(new File(context.getCacheDir(), CACHE_DIR), CACHE_BYTES));
+        }
+        baseClient = builder.build();
+
+        groqClient = baseClient.newBuilder()
+                .connectTimeout(60, TimeUnit.SECONDS)
+                .readTimeout(60, TimeUnit.SECONDS)
+                .writeTimeout(60, TimeUnit.SECONDS)
+                // Pacing plus backoff/retry on 429 and 5xx, shared by every Groq request in the app
+                .addInterceptor(GroqRateLimiter.getInstance())
+                .build();
+
+        youTubeClient = baseClient.newBuilder()
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build();
+
+        // Metadata fallback is a last resort, fail fast instead of keeping the user waiting
+        metadataClient = baseClient.newBuilder()
+                .connectTimeout(5, TimeUnit.SECONDS)
+                .readTimeout(5, TimeUnit.SECONDS)
+                .build();
+
+        Log.d(TAG, "🌐 Shared HTTP client ready (disk cache: " + (context != null) + ")");
+    }
+
+    public static synchronized HttpClientProvider getInstance(Context context) {
+        if (instance == null) {
+            instance = new HttpClientProvider(context != null ? context.getApplicationContext() : null);
+        }
+        return instance;
+    }
+
+    public OkHttpClient getBaseClient() {
+        return baseClient;
+    }
+
+    /**
+     * api.groq.com: long timeouts for generation, rate limited
+     */
+    public OkHttpClient getGroqClient() {
+        return groqClient;
+    }
+
+    /**
+     * Watch pages, timed text and translation
+     */
+    public OkHttpClient getYouTubeClient() {
+        return youTubeClient;
+    }
+
+    /**
+     * Short timeouts for the video metadata fallback
+     */
+    public OkHttpClient getMetadataClient() {
+        return metadataClient;
+    }
+}
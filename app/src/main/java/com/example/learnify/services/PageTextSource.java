@@ -0,0 +1,11 @@
+package com.example.learnify.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Plain text of a document's pages, for one reading thread
+ */
+interface PageTextSource extends Closeable {
+    String page(int page) throws IOException; // 1-based; null once closed
+}
@@ -0,0 +1,118 @@
+package com.example.learnify.services;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strips a document's pages on a few worker threads and hands them out in page order.
+ *
+ * Each worker opens its own copy of the document (PDFBox documents are not thread-safe) and claims
+ * rangePages-page ranges in order from a shared counter, so the pages the caller needs next are
+ * always the ones being worked on. If a worker fails, out of memory with several copies open for
+ * instance, the other workers stop after their current range and the remaining pages are read
+ * from one copy on the calling thread.
+ *
+ * page() and close() are meant for a single caller thread.
+ */
+class ParallelPageReader implements PageTextSource {
+
+    private static final String TAG = "ParallelPageReader";
+
+    interface Opener {
+        PageTextSource open() throws IOException; // a new copy of the document, used by one thread
+    }
+
+    private final Opener opener;
+    private final int pageCount;
+    private final int rangePages;
+    private final List<CompletableFuture<String[]>> ranges = new ArrayList<>();
+    private final AtomicInteger nextRange = new AtomicInteger();
+    private volatile boolean closed = false;
+    private PageTextSource fallback;
+
+    ParallelPageReader(ExecutorService pool, int workers, int pageCount, int rangePages, Opener opener) {
+        this.opener = opener;
+        this.pageCount = pageCount;
+        this.rangePages = rangePages;
+        int rangeCount = (pageCount + rangePages - 1) / rangePages;
+        for (int r = 0; r < rangeCount; r++) ranges.add(new CompletableFuture<>());
+        for (int w = 0; w < Math.min(workers, rangeCount); w++) pool.execute(this::work);
+    }
+
+    private void work() {
+        if (closed) {
+            failUnclaimed(new CancellationException());
+            return;
+        }
+
+        Throwable failure = null;
+        int r = -1;
+        try (PageTextSource pages = opener.open()) {
+            while (!closed && (r = nextRange.getAndIncrement()) < ranges.size()) {
+                int first = r * rangePages + 1;
+                int last = Math.min(first + rangePages - 1, pageCount);
+                String[] texts = new String[last - first + 1];
+                for (int page = first; page <= last; page++) texts[page - first] = pages.page(page);
+                ranges.get(r).complete(texts);
+            }
+        } catch (Exception | OutOfMemoryError e) {
+            Log.e(TAG, "❌ Page worker failed", e);
+            failure = e;
+            if (r >= 0 && r < ranges.size()) ranges.get(r).completeExceptionally(e);
+        } finally {
+            failUnclaimed(failure != null ? failure : new CancellationException());
+        }
+    }
+
+    /**
+     * Nothing unclaimed may be left waiting once a worker stops early
+     */
+    private void failUnclaimed(Throwable reason) {
+        for (int rest = nextRange.getAndSet(ranges.size()); rest < ranges.size(); rest++) {
+            ranges.get(rest).completeExceptionally(reason);
+        }
+    }
+
+    @Override
+    public String page(int page) throws IOException {
+        if (fallback == null) {
+            int r = (page - 1) / rangePages;
+            try {
+                return ranges.get(r).get()[(page - 1) - r * rangePages];
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted at page " + page);
+            } catch (CancellationException e) {
+                return null;
+            } catch (ExecutionException e) {
+                Log.w(TAG, "⚠️ Parallel read failed at page " + page + ", reading the rest on one thread", e.getCause());
+                // The other workers let go of their copies after the range they are on
+                closed = true;
+                fallback = opener.open();
+            }
+        }
+        return fallback.page(page);
+    }
+
+    /**
+     * True once a worker failed and pages come from the calling thread
+     */
+    boolean isSequential() {
+        return fallback != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (fallback != null) fallback.close();
+    }
+}
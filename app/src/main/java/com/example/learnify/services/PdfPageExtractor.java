@@ -0,0 +1,260 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import com.tom_roush.pdfbox.io.MemoryUsageSetting;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import com.tom_roush.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import com.tom_roush.pdfbox.text.PDFTextStripper;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Page-by-page PDF text extraction.
+ *
+ * The document is parsed with temp-file backed scratch storage (a few MB of heap at most), and
+ * text is pulled one page at a time and reported per outline chapter, or per page when the PDF
+ * has no usable outline. The listener hears once when handOffChars of text have arrived, so quiz
+ * generation can start on the first sections while the rest of a 300-page textbook is still read;
+ * the run itself always goes on to the last page.
+ *
+ * Long documents are split into page ranges that a small worker pool strips in parallel, see
+ * ParallelPageReader. The document opened for the page count and outline is closed before the
+ * workers open their own copies, and a failed worker (out of memory, typically) turns the rest
+ * of the run sequential instead of failing it. Pages are still handed to the listener in order.
+ *
+ * Runs synchronously on the calling thread; listener calls arrive on that thread.
+ */
+public class PdfPageExtractor {
+
+    private static final String TAG = "PdfPageExtractor";
+
+    // Twice the quiz input budget: the summarizer still has a choice of sentences
+    public static final int DEFAULT_HAND_OFF_CHARS = ExtractiveSummarizer.DEFAULT_TOKEN_BUDGET * 4 * 2;
+    private static final long MAX_MAIN_MEMORY = 4 * 1024 * 1024;
+
+    // One core is left for the UI; each worker holds its own parsed copy of the document
+    private static final int MAX_WORKERS = 4;
+    public static final int DEFAULT_WORKERS =
+            Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, MAX_WORKERS));
+    private static final int PARALLEL_MIN_PAGES = 24;
+    private static final int RANGE_PAGES = 8;
+    private static final ExecutorService workerPool = Executors.newFixedThreadPool(MAX_WORKERS);
+
+    private final Context context;
+    private final int handOffChars;
+    private final int workers;
+    private volatile boolean cancelled = false;
+
+    public interface Listener {
+        void onStart(int pageCount, int sectionCount);
+        void onSection(String title, int firstPage, int lastPage, String text); // 1-based pages
+        void onProgress(int pagesDone, int pageCount);
+        void onEnoughContent(); // once, after the section that brought the text past handOffChars
+    }
+
+    public PdfPageExtractor(Context context) {
+        this(context, DEFAULT_HAND_OFF_CHARS);
+    }
+
+    public PdfPageExtractor(Context context, int handOffChars) {
+        this(context, handOffChars, DEFAULT_WORKERS);
+    }
+
+    public PdfPageExtractor(Context context, int handOffChars, int workers) {
+        this.context = context.getApplicationContext();
+        this.handOffChars = handOffChars;
+        this.workers = Math.max(1, Math.min(workers, MAX_WORKERS));
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Text of the whole document, or null if cancel() stopped the run first
+     */
+    public String extract(Uri uri, Listener listener) throws IOException {
+        long start = System.currentTimeMillis();
+        // Parallel workers each open the document, so it has to be a file they can all read
+        File source = workers > 1 ? localFile(uri) : null;
+        boolean temporary = source != null && !"file".equals(uri.getScheme());
+
+        PDDocument doc = null;
+        try {
+            doc = load(uri, source);
+            int pageCount = doc.getNumberOfPages();
+            List<Section> sections = sections(doc, pageCount);
+            boolean parallel = source != null && pageCount >= PARALLEL_MIN_PAGES;
+            Log.d(TAG, "📄 " + pageCount + " pages in " + sections.size() + " sections"
+                    + (parallel ? ", " + workers + " workers" : ""));
+
+            PageTextSource pages;
+            if (parallel) {
+                // Each worker parses its own copy, this one would only hold memory while they run
+                doc.close();
+                doc = null;
+                pages = new ParallelPageReader(workerPool, workers, pageCount, RANGE_PAGES,
+                        () -> new SequentialPages(PDDocument.load(source, scratch())));
+            } else {
+                pages = new SequentialPages(doc);
+                doc = null;
+            }
+            listener.onStart(pageCount, sections.size());
+            StringBuilder all = new StringBuilder();
+            boolean handedOff = false;
+            int pagesDone = 0;
+
+            try {
+                for (int s = 0; s < sections.size() && !cancelled; s++) {
+                    Section section = sections.get(s);
+                    int sectionStart = all.length();
+                    int page = section.firstPage;
+
+                    for (; page <= section.lastPage && !cancelled; page++) {
+                        String text = pages.page(page);
+                        if (text == null) break; // cancelled while waiting
+                        all.append(text);
+                        listener.onProgress(++pagesDone, pageCount);
+                    }
+
+                    if (page > section.firstPage) {
+                        listener.onSection(section.title, section.firstPage, page - 1, all.substring(sectionStart));
+                    }
+                    if (!handedOff && all.length() >= handOffChars && pagesDone < pageCount && !cancelled) {
+                        handedOff = true;
+                        Log.d(TAG, "⏩ Enough to start on after " + pagesDone + "/" + pageCount + " pages");
+                        listener.onEnoughContent();
+                    }
+                }
+            } finally {
+                pages.close();
+            }
+
+            Log.d(TAG, (pagesDone < pageCount ? "⏹️ Stopped after " : "✅ Extracted ") + pagesDone + "/" + pageCount
+                    + " pages, " + all.length() + " chars in " + (System.currentTimeMillis() - start) + " ms");
+            return pagesDone < pageCount ? null : all.toString();
+        } finally {
+            if (doc != null) doc.close();
+            if (temporary && !source.delete()) Log.w(TAG, "Could not delete " + source);
+        }
+    }
+
+    private PDDocument load(Uri uri, File source) throws IOException {
+        if (source != null) return PDDocument.load(source, scratch());
+        try (InputStream is = context.getContentResolver().openInputStream(uri)) {
+            if (is == null) throw new IOException("Cannot open " + uri);
+            return PDDocument.load(is, scratch());
+        }
+    }
+
+    private MemoryUsageSetting scratch() {
+        return MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY).setTempDir(context.getCacheDir());
+    }
+
+    /**
+     * The file behind a file:// uri, otherwise a temporary copy in the cache dir
+     */
+    private File localFile(Uri uri) throws IOException {
+        if ("file".equals(uri.getScheme()) && uri.getPath() != null) return new File(uri.getPath());
+
+        File copy = File.createTempFile("extract", ".pdf", context.getCacheDir());
+        try (InputStream in = context.getContentResolver().openInputStream(uri);
+             OutputStream out = new FileOutputStream(copy)) {
+            if (in == null) throw new IOException("Cannot open " + uri);
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) out.write(buffer, 0, n);
+        } catch (IOException e) {
+            copy.delete();
+            throw e;
+        }
+        return copy;
+    }
+
+    /**
+     * Pages of one open document; closing it closes the document
+     */
+    private static class SequentialPages implements PageTextSource {
+        private final PDDocument doc;
+        private final PDFTextStripper stripper;
+
+        SequentialPages(PDDocument doc) throws IOException {
+            this.doc = doc;
+            this.stripper = new PDFTextStripper();
+        }
+
+        @Override
+        public String page(int page) throws IOException {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            return stripper.getText(doc);
+        }
+
+        @Override
+        public void close() throws IOException {
+            doc.close();
+        }
+    }
+
+    private static class Section {
+        final String title;
+        final int firstPage; // 1-based, inclusive
+        final int lastPage;
+
+        Section(String title, int firstPage, int lastPage) {
+            this.title = title;
+            this.firstPage = firstPage;
+            this.lastPage = lastPage;
+        }
+    }
+
+    /**
+     * Top-level outline entries as page ranges, or one section per page without a usable outline
+     */
+    private static List<Section> sections(PDDocument doc, int pageCount) {
+        TreeMap<Integer, String> starts = new TreeMap<>();
+        try {
+            PDDocumentOutline outline = doc.getDocumentCatalog().getDocumentOutline();
+            if (outline != null) {
+                for (PDOutlineItem item : outline.children()) {
+                    PDPage page = item.findDestinationPage(doc);
+                    int index = page != null ? doc.getPages().indexOf(page) : -1;
+                    if (index >= 0 && !starts.containsKey(index + 1)) starts.put(index + 1, item.getTitle());
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Unreadable outline, going page by page", e);
+            starts.clear();
+        }
+
+        List<Section> sections = new ArrayList<>();
+        if (starts.size() < 2) {
+            for (int page = 1; page <= pageCount; page++) sections.add(new Section("Page " + page, page, page));
+            return sections;
+        }
+
+        // Front matter before the first chapter counts as its own section
+        if (starts.firstKey() > 1) starts.put(1, "Front matter");
+        List<Integer> firstPages = new ArrayList<>(starts.keySet());
+        for (int i = 0; i < firstPages.size(); i++) {
+            int first = firstPages.get(i);
+            int last = i + 1 < firstPages.size() ? firstPages.get(i + 1) - 1 : pageCount;
+            sections.add(new Section(starts.get(first), first, last));
+        }
+        return sections;
+    }
+}
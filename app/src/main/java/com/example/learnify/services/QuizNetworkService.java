@@ -8,22 +8,26 @@ import androidx.annotation.NonNull;
 
 import com.example.learnify.BuildConfig;
 import com.example.learnify.groqapihelpers.GroqRequest;
-import com.example.learnify.groqapihelpers.GroqResponse;
+import com.example.learnify.groqapihelpers.QuizPromptTemplate;
+import com.example.learnify.groqapihelpers.QuizResponseDecoder;
+import com.example.learnify.groqapihelpers.QuizStreamParser;
 import com.example.learnify.managers.LanguageManager;
 import com.example.learnify.modelclass.QuizSettings;
 import com.example.learnify.groqapihelpers.QuizApi;
 import com.example.learnify.modelclass.QuizQuestion;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
-import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -38,12 +42,38 @@ public class QuizNetworkService {
     private final QuizApi quizApi;
     private final String apiKey = BuildConfig.API_KEY;
     private final Gson gson;
+    private final QuizResponseDecoder decoder;
     private final Handler mainHandler;
     private final Context context;
+    private final ChunkedQuizGenerator chunkedGenerator;
+    private final QuizResultCache resultCache;
+    private ExtractiveSummarizer summarizer = new ExtractiveSummarizer();
+
+    // Off-main-thread input preparation (sentence scoring on 100+ KB transcripts)
+    private static final ExecutorService prepExecutor = Executors.newSingleThreadExecutor();
+
+    // Shared across instances: a recreated fragment builds a new service for the same request
+    private static final QuizRequestCoalescer coalescer = new QuizRequestCoalescer();
+    private final Map<Object, QuizCallback> pendingLookups = new HashMap<>();
+    // Retrofit proxies are thread-safe, one per process is enough
+    private static QuizApi sharedQuizApi;
 
     public interface QuizCallback {
         void onSuccess(List<QuizQuestion> quizQuestions, String topic);
         void onError(String error);
+
+        /**
+         * Called as sections of a long document finish (chunked generation only)
+         */
+        default void onProgress(int completedChunks, int totalChunks) {}
+    }
+
+    /**
+     * Callback for streamed generation: questions arrive one by one before onSuccess
+     */
+    public interface QuizStreamCallback extends QuizCallback {
+        void onTopic(String topic);
+        void onQuestion(QuizQuestion question);
     }
 
     public QuizNetworkService(String apiKey) {
@@ -53,21 +83,24 @@ public class QuizNetworkService {
     public QuizNetworkService(String apiKey, Context context) {
         this.context = context;
         this.gson = new Gson();
+        this.decoder = new QuizResponseDecoder(gson);
         this.mainHandler = new Handler(Looper.getMainLooper());
 
-        OkHttpClient client = new OkHttpClient.Builder()
-                .connectTimeout(60, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
-                .writeTimeout(60, TimeUnit.SECONDS)
-                .build();
-
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(BASE_URL)
-                .client(client)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
+        this.quizApi = sharedApi(context);
+        this.chunkedGenerator = new ChunkedQuizGenerator(this);
+        this.resultCache = context != null ? QuizResultCache.getInstance(context) : null;
+    }
 
-        this.quizApi = retrofit.create(QuizApi.class);
+    private static synchronized QuizApi sharedApi(Context context) {
+        if (sharedQuizApi == null) {
+            Retrofit retrofit = new Retrofit.Builder()
+                    .baseUrl(BASE_URL)
+                    .client(HttpClientProvider.getInstance(context).getGroqClient())
+                    .addConverterFactory(GsonConverterFactory.create())
+                    .build();
+            sharedQuizApi = retrofit.create(QuizApi.class);
+        }
+        return sharedQuizApi;
     }
 
     /**
@@ -81,15 +114,215 @@ public class QuizNetworkService {
      * Generate quiz with custom settings
      */
     public void generateQuizWithSettings(String inputContext, QuizSettings settings, QuizCallback callback) {
+        generateQuizWithSettings(inputContext, settings, false, callback);
+    }
+
+    /**
+     * Generate quiz with custom settings.
+     * bypassCache skips a cached result (used by "regenerate") but the new result is still stored.
+     */
+    public void generateQuizWithSettings(String inputContext, QuizSettings settings, boolean bypassCache, QuizCallback callback) {
+        generateCached(inputContext, settings, bypassCache, false, callback);
+    }
+
+    /**
+     * Generate quiz over server-sent events.
+     * Each question is delivered through onQuestion as soon as the model has finished writing it,
+     * onSuccess then receives the complete list.
+     */
+    public void generateQuizStreaming(String inputContext, QuizSettings settings, QuizStreamCallback callback) {
+        generateQuizStreaming(inputContext, settings, false, callback);
+    }
+
+    public void generateQuizStreaming(String inputContext, QuizSettings settings, boolean bypassCache, QuizStreamCallback callback) {
+        generateCached(inputContext, settings, bypassCache, true, callback);
+    }
+
+    /**
+     * Quiz over input that is still arriving (e.g. a playlist whose transcripts are being fetched).
+     * Sections passed to the returned feed are grouped into at most a few requests, which start
+     * as soon as their group is complete. Not cached: the full input is only known at the end.
+     * Cancel through cancel(callback) like any other request.
+     */
+    public ChunkedQuizGenerator.Feed generateQuizFromSections(int expectedSections, QuizSettings settings,
+                                                              QuizStreamCallback callback) {
+        return chunkedGenerator.open(expectedSections, resolveSettings(settings), callback);
+    }
+
+    /**
+     * Trim text to tokenBudget off the main thread; results come back on the main thread in call order
+     */
+    void compressAsync(String text, int tokenBudget, Consumer<String> onReady) {
+        ExtractiveSummarizer trimmer = new ExtractiveSummarizer(tokenBudget);
+        prepExecutor.execute(() -> {
+            String trimmed = trimmer.compress(text);
+            mainHandler.post(() -> onReady.accept(trimmed));
+        });
+    }
+
+    /**
+     * Largest input (in estimated tokens) sent on before extractive compression kicks in
+     */
+    public void setInputTokenBudget(int tokenBudget) {
+        this.summarizer = new ExtractiveSummarizer(tokenBudget);
+    }
+
+    public int getCacheHitCount() {
+        return resultCache != null ? resultCache.getHitCount() : 0;
+    }
+
+    public int getCacheMissCount() {
+        return resultCache != null ? resultCache.getMissCount() : 0;
+    }
+
+    /**
+     * Stop delivering results to this callback (e.g. the fragment is gone).
+     * A shared request is only cancelled once none of its waiters are left.
+     */
+    public void cancel(QuizCallback callback) {
+        Iterator<QuizCallback> lookups = pendingLookups.values().iterator();
+        while (lookups.hasNext()) {
+            // Compression waits hold the CachingCallback wrapper, not the caller's own callback
+            if (QuizRequestCoalescer.rootOf(lookups.next()) == callback) lookups.remove();
+        }
+        chunkedGenerator.cancel(callback);
+        coalescer.release(callback);
+    }
+
+    private void generateCached(String inputContext, QuizSettings settings, boolean bypassCache,
+                                boolean streaming, QuizCallback callback) {
+        if (resultCache == null) {
+            dispatch(inputContext, settings, streaming, callback);
+            return;
+        }
+
+        Object lookupToken = new Object();
+        pendingLookups.put(lookupToken, callback);
+        resultCache.lookup(inputContext, resolveSettings(settings), bypassCache, (key, cached) -> {
+            if (pendingLookups.remove(lookupToken) == null) {
+                Log.d(TAG, "⏭️ Cancelled while checking cache");
+                return;
+            }
+            if (cached != null) {
+                Log.d(TAG, "💾 Serving " + cached.questions.size() + " questions from cache");
+                deliverCached(cached, callback);
+                return;
+            }
+            dispatch(inputContext, settings, streaming, new CachingCallback(key, callback));
+        });
+    }
+
+    private void dispatch(String inputContext, QuizSettings settings, boolean streaming, QuizCallback callback) {
+        if (summarizer.needsCompression(inputContext)) {
+            // Keep only the most informative sentences, then continue on the main thread
+            ExtractiveSummarizer activeSummarizer = summarizer;
+            Object prepToken = new Object();
+            pendingLookups.put(prepToken, callback);
+            prepExecutor.execute(() -> {
+                String compressed = activeSummarizer.compress(inputContext);
+                mainHandler.post(() -> {
+                    if (pendingLookups.remove(prepToken) == null) {
+                        Log.d(TAG, "⏭️ Cancelled while compressing input");
+                        return;
+                    }
+                    route(compressed, settings, streaming, callback);
+                });
+            });
+            return;
+        }
+        route(inputContext, settings, streaming, callback);
+    }
+
+    private void route(String inputContext, QuizSettings settings, boolean streaming, QuizCallback callback) {
+        if (chunkedGenerator.needsChunking(inputContext)) {
+            // Sections are generated in parallel; streaming callers get questions as each one finishes
+            Log.d(TAG, "📚 Long input (" + inputContext.length() + " chars), using chunked generation");
+            chunkedGenerator.generate(inputContext, resolveSettings(settings), callback);
+        } else if (streaming) {
+            streamQuiz(inputContext, settings, (QuizStreamCallback) callback);
+        } else {
+            requestQuiz(inputContext, settings, callback);
+        }
+    }
+
+    private void deliverCached(QuizResultCache.CachedQuiz cached, QuizCallback callback) {
+        if (callback instanceof QuizStreamCallback) {
+            QuizStreamCallback streamCallback = (QuizStreamCallback) callback;
+            if (cached.topic != null) streamCallback.onTopic(cached.topic);
+            for (QuizQuestion q : cached.questions) {
+                streamCallback.onQuestion(q);
+            }
+        }
+        callback.onSuccess(cached.questions, cached.topic);
+    }
+
+    /**
+     * Stores successful results in the cache on their way to the real callback
+     */
+    private class CachingCallback implements QuizStreamCallback, QuizRequestCoalescer.WrappingCallback {
+        private final String key;
+        private final QuizCallback delegate;
+
+        CachingCallback(String key, QuizCallback delegate) {
+            this.key = key;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public QuizCallback getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public void onTopic(String topic) {
+            if (delegate instanceof QuizStreamCallback) ((QuizStreamCallback) delegate).onTopic(topic);
+        }
+
+        @Override
+        public void onQuestion(QuizQuestion question) {
+            if (delegate instanceof QuizStreamCallback) ((QuizStreamCallback) delegate).onQuestion(question);
+        }
+
+        @Override
+        public void onProgress(int completedChunks, int totalChunks) {
+            delegate.onProgress(completedChunks, totalChunks);
+        }
+
+        @Override
+        public void onSuccess(List<QuizQuestion> quizQuestions, String topic) {
+            resultCache.put(key, topic, quizQuestions);
+            delegate.onSuccess(quizQuestions, topic);
+        }
+
+        @Override
+        public void onError(String error) {
+            delegate.onError(error);
+        }
+    }
+
+    /**
+     * Single Groq request for content that fits in one prompt
+     */
+    void requestQuiz(String inputContext, QuizSettings settings, QuizCallback callback) {
+        String systemPrompt = buildSystemPrompt(settings);
+        QuizRequestCoalescer.Flight flight = coalescer.join(flightKey("request", systemPrompt, inputContext, settings), callback);
+        if (flight == null) {
+            Log.d(TAG, "🔗 Same quiz already being generated, sharing its result");
+            return;
+        }
+
         Log.d(TAG, "🎯 Generating quiz from content...");
 
-        String prompt = buildPromptWithSettings(inputContext, settings);
-        GroqRequest requestBody = new GroqRequest(prompt);
+        String userContent = QuizPromptTemplate.userMessage(inputContext);
+        logPromptSize(systemPrompt, userContent);
+        GroqRequest requestBody = new GroqRequest(systemPrompt, userContent, false);
         String authHeader = "Bearer " + apiKey;
 
-        quizApi.generateQuiz(authHeader, requestBody).enqueue(new Callback<GroqResponse>() {
+        Call<ResponseBody> groqCall = quizApi.generateQuiz(authHeader, requestBody);
+        flight.setCall(groqCall);
+        groqCall.enqueue(new Callback<ResponseBody>() {
             @Override
-            public void onResponse(@NonNull Call<GroqResponse> call, @NonNull Response<GroqResponse> response) {
+            public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                 Log.d(TAG, "✅ HTTP Response received: " + response.code());
 
                 if (!response.isSuccessful() || response.body() == null) {
@@ -102,63 +335,193 @@ public class QuizNetworkService {
                     Log.e(TAG, errorMsg);
 
                     String finalError = errorMsg;
-                    mainHandler.post(() -> callback.onError(finalError));
+                    mainHandler.post(() -> flight.onError(finalError));
                     return;
                 }
 
-                String quizJsonText = response.body().getContent();
-                if (quizJsonText == null) {
-                    Log.e(TAG, "Empty response from AI");
-                    mainHandler.post(() -> callback.onError("Empty response from AI"));
-                    return;
+                try (ResponseBody body = response.body()) {
+                    // Envelope and quiz are decoded straight from the socket, no String/JsonObject copies
+                    QuizResponseDecoder.DecodedQuiz quiz = decoder.decodeCompletion(body.charStream());
+                    // No content, or content without a questions array, is no quiz
+                    if (quiz == null || quiz.questions.isEmpty()) {
+                        Log.e(TAG, "Empty response from AI");
+                        mainHandler.post(() -> flight.onError("Empty response from AI"));
+                        return;
+                    }
+
+                    Log.d(TAG, "📩 Raw Content from AI");
+                    if (quiz.topic != null) {
+                        Log.d(TAG, "📌 AI generated topic: " + quiz.topic);
+                    }
+                    Log.d(TAG, "🔢 Found Questions Array. Size: " + quiz.questions.size());
+
+                    String language = context != null ?
+                            LanguageManager.getInstance(context).getCurrentLanguage() : "English";
+                    Log.d(TAG, "✅ Success! Parsed " + quiz.questions.size() + " questions in " + language);
+
+                    mainHandler.post(() -> flight.onSuccess(quiz.questions, quiz.topic));
+
+                } catch (Exception e) {
+                    if (call.isCanceled()) return;
+                    Log.e(TAG, "❌ Parsing Fail", e);
+                    mainHandler.post(() -> flight.onError("Failed to parse quiz: " + e.getMessage()));
                 }
+            }
 
-                Log.d(TAG, "📩 Raw Content from AI");
+            @Override
+            public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                Log.e(TAG, "❌ Network Fail", t);
+                mainHandler.post(() -> flight.onError("Network error: " + t.getMessage()));
+            }
+        });
+    }
 
-                try {
-                    // Sanitize
-                    quizJsonText = quizJsonText.replace("```json", "").replace("```", "").trim();
+    /**
+     * Single streamed Groq request for content that fits in one prompt
+     */
+    private void streamQuiz(String inputContext, QuizSettings settings, QuizStreamCallback callback) {
+        String systemPrompt = buildSystemPrompt(settings);
+        QuizRequestCoalescer.Flight flight = coalescer.join(flightKey("stream", systemPrompt, inputContext, settings), callback);
+        if (flight == null) {
+            Log.d(TAG, "🔗 Same quiz already being streamed, sharing its result");
+            return;
+        }
 
-                    // Parse wrapper object
-                    JsonObject root = JsonParser.parseString(quizJsonText).getAsJsonObject();
+        Log.d(TAG, "🎯 Streaming quiz from content...");
 
-                    // Get topic from AI response (if available)
-                    String topic = null;
-                    if (root.has("topic") && !root.get("topic").isJsonNull()) {
-                        topic = root.get("topic").getAsString();
-                        Log.d(TAG, "📌 AI generated topic: " + topic);
-                    }
+        String userContent = QuizPromptTemplate.userMessage(inputContext);
+        logPromptSize(systemPrompt, userContent);
+        GroqRequest requestBody = new GroqRequest(systemPrompt, userContent, true);
+        String authHeader = "Bearer " + apiKey;
 
-                    // Get questions array
-                    JsonArray questionsArray = root.getAsJsonArray("questions");
-                    Log.d(TAG, "🔢 Found Questions Array. Size: " + questionsArray.size());
+        Call<ResponseBody> groqCall = quizApi.generateQuizStream(authHeader, requestBody);
+        flight.setCall(groqCall);
+        groqCall.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                Log.d(TAG, "✅ Stream opened: " + response.code());
 
-                    // Convert to List
-                    Type listType = new TypeToken<ArrayList<QuizQuestion>>(){}.getType();
-                    List<QuizQuestion> questions = gson.fromJson(questionsArray, listType);
+                if (!response.isSuccessful() || response.body() == null) {
+                    String errorMsg = "Groq API Error: " + response.code();
+                    try {
+                        if (response.errorBody() != null) {
+                            errorMsg += " - " + response.errorBody().string();
+                        }
+                    } catch (Exception ignored) {}
+                    Log.e(TAG, errorMsg);
 
-                    String language = context != null ?
-                            LanguageManager.getInstance(context).getCurrentLanguage() : "English";
-                    Log.d(TAG, "✅ Success! Parsed " + questions.size() + " questions in " + language);
+                    String finalError = errorMsg;
+                    mainHandler.post(() -> flight.onError(finalError));
+                    return;
+                }
+
+                List<QuizQuestion> questions = new ArrayList<>();
+                QuizStreamParser parser = new QuizStreamParser(gson, new QuizStreamParser.Listener() {
+                    @Override
+                    public void onTopic(String topic) {
+                        Log.d(TAG, "📌 Streamed topic: " + topic);
+                        mainHandler.post(() -> flight.onTopic(topic));
+                    }
 
-                    String finalTopic = topic;
-                    mainHandler.post(() -> callback.onSuccess(questions, finalTopic));
+                    @Override
+                    public void onQuestion(QuizQuestion question) {
+                        questions.add(question);
+                        Log.d(TAG, "📨 Streamed question " + questions.size());
+                        mainHandler.post(() -> flight.onQuestion(question));
+                    }
+                });
+
+                try (ResponseBody body = response.body()) {
+                    BufferedSource source = body.source();
+                    String line;
+                    while ((line = source.readUtf8Line()) != null) {
+                        if (!line.startsWith("data:")) continue;
+
+                        String data = line.substring(5).trim();
+                        if (data.equals("[DONE]")) break;
 
+                        String delta = QuizStreamParser.extractDelta(data);
+                        if (delta != null) {
+                            parser.feed(delta);
+                        }
+                    }
                 } catch (Exception e) {
-                    Log.e(TAG, "❌ Parsing Fail", e);
-                    mainHandler.post(() -> callback.onError("Failed to parse quiz: " + e.getMessage()));
+                    if (call.isCanceled()) return;
+                    Log.e(TAG, "❌ Stream interrupted", e);
+                    if (questions.isEmpty()) {
+                        mainHandler.post(() -> flight.onError("Network error: " + e.getMessage()));
+                        return;
+                    }
+                    // Keep what already arrived
+                }
+
+                List<QuizQuestion> result = new ArrayList<>(questions);
+                String topic = parser.getTopic();
+
+                if (result.isEmpty()) {
+                    // Streaming scanner found nothing usable, try the whole text once
+                    try {
+                        QuizResponseDecoder.DecodedQuiz quiz = decoder.decodeContent(new StringReader(parser.getText()));
+                        result.addAll(quiz.questions);
+                        if (topic == null) topic = quiz.topic;
+                    } catch (Exception e) {
+                        Log.e(TAG, "❌ Parsing Fail", e);
+                    }
                 }
+
+                if (result.isEmpty()) {
+                    // Also covers a complete answer that had no questions array at all
+                    Log.e(TAG, "Empty response from AI");
+                    mainHandler.post(() -> flight.onError("Empty response from AI"));
+                    return;
+                }
+
+                Log.d(TAG, "✅ Stream complete. " + result.size() + " questions");
+                String finalTopic = topic;
+                mainHandler.post(() -> flight.onSuccess(result, finalTopic));
             }
 
             @Override
-            public void onFailure(@NonNull Call<GroqResponse> call, @NonNull Throwable t) {
+            public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
                 Log.e(TAG, "❌ Network Fail", t);
-                mainHandler.post(() -> callback.onError("Network error: " + t.getMessage()));
+                mainHandler.post(() -> flight.onError("Network error: " + t.getMessage()));
             }
         });
     }
 
-    private String buildPromptWithSettings(String input, QuizSettings settings) {
+    /**
+     * Identity of a request for coalescing: prompt plus resolved settings and the transport
+     */
+    private String flightKey(String mode, String systemPrompt, String input, QuizSettings settings) {
+        return mode + ":" + QuizResultCache.buildKey(systemPrompt + "\n" + input, resolveSettings(settings));
+    }
+
+    private void logPromptSize(String systemPrompt, String userContent) {
+        int systemTokens = QuizPromptTemplate.estimateTokens(systemPrompt);
+        int contentTokens = QuizPromptTemplate.estimateTokens(userContent);
+        Log.d(TAG, "📏 Prompt ≈ " + (systemTokens + contentTokens) + " tokens (instructions "
+                + systemTokens + " + content " + contentTokens + ")");
+    }
+
+    /**
+     * Settings used when the caller passed none: defaults in the user's language
+     */
+    private QuizSettings resolveSettings(QuizSettings settings) {
+        if (settings != null) return settings;
+
+        QuizSettings defaults = new QuizSettings();
+        if (context != null) {
+            LanguageManager langManager = LanguageManager.getInstance(context);
+            defaults.setLanguage(langManager.getCurrentLanguage());
+            defaults.setLanguageCode(langManager.getCurrentLanguageCode());
+        }
+        return defaults;
+    }
+
+    /**
+     * Instructions for the system message; cached by QuizPromptTemplate per language/settings
+     */
+    private String buildSystemPrompt(QuizSettings settings) {
         // Get user's preferred language
         String targetLanguage = "ENGLISH";
         int questionCount = 5;
@@ -178,73 +541,6 @@ public class QuizNetworkService {
             codingInstruction = settings.getCodingInstruction();
         }
 
-        return
-                "You are a strict JSON generator that creates educational quizzes. OUTPUT ONLY VALID JSON.\n" +
-                        "Never output explanations, notes, markdown, or text outside JSON.\n\n" +
-
-                        "JSON FORMATTING RULES:\n" +
-                        "- Use ONLY double quotes (\")\n" +
-                        "- NEVER use single quotes (')\n" +
-                        "- No trailing commas\n" +
-                        "- Every string must be enclosed in double quotes\n" +
-                        "- The JSON MUST match the required structure exactly\n" +
-                        "- The value of \"type\" must be either \"MCQ\" or \"CODING\"\n\n" +
-
-                        "🏷️ QUIZ TITLE RULES (IMPORTANT):\n" +
-                        "1. Generate a SHORT topic name (2-4 words max)\n" +
-                        "2. DO NOT include the word 'Quiz' in the topic\n" +
-                        "3. Use general terms like 'Loops' instead of specific syntax like 'For Loop'\n" +
-                        "4. Good examples: 'Newton Laws', 'Python Functions', 'Cell Biology', 'Data Structures'\n" +
-                        "5. Bad examples: 'For Loop Quiz', 'Quiz About Functions', 'The Quiz'\n\n" +
-
-                        "🌍 LANGUAGE REQUIREMENT:\n" +
-                        "CRITICAL: ALL quiz content MUST be in " + targetLanguage + " ONLY.\n" +
-                        "- Even if the input content is in a different language\n" +
-                        "- ALL questions, options, and answers MUST be generated in " + targetLanguage + "\n" +
-                        "- Translate concepts, ideas, and facts to " + targetLanguage + "\n" +
-                        "- Maintain the original meaning while using " + targetLanguage + " language\n\n" +
-
-                        "📊 QUIZ SETTINGS:\n" +
-                        "- Number of questions: Generate EXACTLY " + questionCount + " questions\n" +
-                        "- Difficulty: " + difficultyInstruction + "\n" +
-                        "- Coding questions: " + codingInstruction + "\n\n" +
-
-                        "CONTENT TO ANALYZE:\n" +
-                        input + "\n\n" +
-
-                        "TASK:\n" +
-                        "Generate exactly " + questionCount + " quiz questions based on the content above.\n" +
-                        "Rules:\n" +
-                        "1. Extract key information from the content (regardless of its language)\n" +
-                        "2. Create questions that test understanding of the material\n" +
-                        "3. Do NOT invent facts not present in the content\n" +
-                        "4. Follow the difficulty setting: " + difficultyInstruction + "\n" +
-                        "5. Follow the coding setting: " + codingInstruction + "\n" +
-                        "6. 🌍 ALL TEXT IN " + targetLanguage + " - translate if source is in another language\n\n" +
-
-                        "RESPONSE FORMAT:\n" +
-                        "{\n" +
-                        "  \"topic\": \"Short Topic Name (2-4 words, NO 'Quiz' word)\",\n" +
-                        "  \"questions\": [\n" +
-                        "    {\n" +
-                        "      \"type\": \"MCQ\",\n" +
-                        "      \"questionText\": \"Question in " + targetLanguage + "\",\n" +
-                        "      \"options\": [\"Option A\", \"Option B\", \"Option C\", \"Option D\"],\n" +
-                        "      \"correctAnswer\": \"Correct option\",\n" +
-                        "      \"difficulty\": \"EASY\"\n" +
-                        "    }\n" +
-                        "  ]\n" +
-                        "}\n\n" +
-
-                        "For coding questions:\n" +
-                        "{\n" +
-                        "  \"type\": \"CODING\",\n" +
-                        "  \"questionText\": \"Coding task in " + targetLanguage + "\",\n" +
-                        "  \"options\": [],\n" +
-                        "  \"correctAnswer\": \"Sample solution\",\n" +
-                        "  \"difficulty\": \"HARD\"\n" +
-                        "}\n\n" +
-
-                        "🎯 REMEMBER: Output ONLY the JSON object. ALL text in " + targetLanguage + ". Include 'topic' field! Generate EXACTLY " + questionCount + " questions!";
-    }
-}
\ No newline at end of file
+        return QuizPromptTemplate.systemPrompt(targetLanguage, questionCount, difficultyInstruction, codingInstruction);
+    }
+}
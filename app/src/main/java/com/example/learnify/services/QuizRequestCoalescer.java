@@ -0,0 +1,171 @@
+package com.example.learnify.services;
+
+import android.util.Log;
+
+import com.example.learnify.modelclass.QuizQuestion;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+
+/**
+ * Single-flight layer for Groq requests.
+ *
+ * Identical (prompt, settings) requests attach to the one call already in flight and every
+ * waiter receives the result. The waiter list doubles as a reference count: the shared call
+ * is cancelled only when the last waiter is released.
+ *
+ * Main thread only, like every other QuizNetworkService callback.
+ */
+class QuizRequestCoalescer {
+
+    private static final String TAG = "QuizRequestCoalescer";
+
+    /**
+     * Implemented by callbacks that wrap a caller's callback, so release() can find the caller
+     */
+    interface WrappingCallback {
+        QuizNetworkService.QuizCallback getDelegate();
+    }
+
+    private final Map<String, Flight> flights = new HashMap<>();
+    private final Gson gson = new Gson();
+
+    /**
+     * Attach to the flight for this key.
+     * Returns a new Flight the caller must start, or null if the waiter joined one already running.
+     */
+    Flight join(String key, QuizNetworkService.QuizCallback waiter) {
+        Flight existing = flights.get(key);
+        if (existing != null) {
+            Log.d(TAG, "🔗 Joined in-flight request (" + (existing.waiters.size() + 1) + " waiters)");
+            existing.addWaiter(waiter);
+            return null;
+        }
+
+        Flight flight = new Flight(key);
+        flight.waiters.add(waiter);
+        flights.put(key, flight);
+        return flight;
+    }
+
+    /**
+     * Detach every waiter that belongs to this caller callback, cancelling flights nobody waits for any more
+     */
+    void release(QuizNetworkService.QuizCallback caller) {
+        Iterator<Flight> it = flights.values().iterator();
+        while (it.hasNext()) {
+            Flight flight = it.next();
+            Iterator<QuizNetworkService.QuizCallback> waiters = flight.waiters.iterator();
+            while (waiters.hasNext()) {
+                if (rootOf(waiters.next()) == caller) waiters.remove();
+            }
+
+            if (flight.waiters.isEmpty()) {
+                Log.d(TAG, "🛑 Last waiter gone, cancelling request");
+                it.remove();
+                if (flight.call != null) flight.call.cancel();
+            }
+        }
+    }
+
+    static QuizNetworkService.QuizCallback rootOf(QuizNetworkService.QuizCallback callback) {
+        QuizNetworkService.QuizCallback current = callback;
+        while (current instanceof WrappingCallback) {
+            current = ((WrappingCallback) current).getDelegate();
+        }
+        return current;
+    }
+
+    /**
+     * One shared request; the network code reports into it as if it were a single callback
+     */
+    class Flight implements QuizNetworkService.QuizStreamCallback {
+        private final String key;
+        private final List<QuizNetworkService.QuizCallback> waiters = new ArrayList<>();
+        private Call<?> call;
+
+        // Kept so late joiners of a streamed request can catch up
+        private String topic;
+        private final List<QuizQuestion> streamed = new ArrayList<>();
+
+        Flight(String key) {
+            this.key = key;
+        }
+
+        void setCall(Call<?> call) {
+            this.call = call;
+        }
+
+        private void addWaiter(QuizNetworkService.QuizCallback waiter) {
+            waiters.add(waiter);
+            if (waiter instanceof QuizNetworkService.QuizStreamCallback) {
+                QuizNetworkService.QuizStreamCallback streamWaiter = (QuizNetworkService.QuizStreamCallback) waiter;
+                if (topic != null) streamWaiter.onTopic(topic);
+                for (QuizQuestion q : streamed) {
+                    streamWaiter.onQuestion(copy(q));
+                }
+            }
+        }
+
+        @Override
+        public void onTopic(String topic) {
+            this.topic = topic;
+            for (QuizNetworkService.QuizCallback waiter : new ArrayList<>(waiters)) {
+                if (waiter instanceof QuizNetworkService.QuizStreamCallback) {
+                    ((QuizNetworkService.QuizStreamCallback) waiter).onTopic(topic);
+                }
+            }
+        }
+
+        @Override
+        public void onQuestion(QuizQuestion question) {
+            streamed.add(question);
+            boolean first = true;
+            for (QuizNetworkService.QuizCallback waiter : new ArrayList<>(waiters)) {
+                if (waiter instanceof QuizNetworkService.QuizStreamCallback) {
+                    ((QuizNetworkService.QuizStreamCallback) waiter).onQuestion(first ? question : copy(question));
+                    first = false;
+                }
+            }
+        }
+
+        @Override
+        public void onSuccess(List<QuizQuestion> quizQuestions, String topic) {
+            if (flights.get(key) == this) flights.remove(key);
+
+            boolean first = true;
+            for (QuizNetworkService.QuizCallback waiter : new ArrayList<>(waiters)) {
+                // Every waiter gets its own objects, the UI marks questions answered in place
+                waiter.onSuccess(first ? quizQuestions : copyAll(quizQuestions), topic);
+                first = false;
+            }
+            waiters.clear();
+        }
+
+        @Override
+        public void onError(String error) {
+            if (flights.get(key) == this) flights.remove(key);
+
+            for (QuizNetworkService.QuizCallback waiter : new ArrayList<>(waiters)) {
+                waiter.onError(error);
+            }
+            waiters.clear();
+        }
+    }
+
+    private QuizQuestion copy(QuizQuestion question) {
+        return gson.fromJson(gson.toJson(question), QuizQuestion.class);
+    }
+
+    private List<QuizQuestion> copyAll(List<QuizQuestion> questions) {
+        List<QuizQuestion> copies = new ArrayList<>();
+        for (QuizQuestion q : questions) copies.add(copy(q));
+        return copies;
+    }
+}
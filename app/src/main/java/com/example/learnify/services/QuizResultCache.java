@@ -0,0 +1,220 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.learnify.modelclass.QuizQuestion;
+import com.example.learnify.modelclass.QuizSettings;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content-addressed disk cache of generated quizzes.
+ *
+ * The key is a SHA-256 of the normalized input text plus every QuizSettings field that
+ * changes the prompt, so the same document with the same settings never pays for a second
+ * Groq call. Entries live in the app cache dir and are evicted least-recently-used once the
+ * directory grows past its byte limit.
+ */
+public class QuizResultCache {
+
+    private static final String TAG = "QuizResultCache";
+    private static final String DIR_NAME = "quiz_results";
+    private static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    private static QuizResultCache instance;
+
+    private final File dir;
+    private final long maxBytes;
+    private final Gson gson = new Gson();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public interface LookupCallback {
+        void onResult(String key, CachedQuiz quiz); // quiz is null on a miss
+    }
+
+    /**
+     * What is stored per entry
+     */
+    public static class CachedQuiz {
+        public String topic;
+        public List<QuizQuestion> questions;
+
+        public CachedQuiz(String topic, List<QuizQuestion> questions) {
+            this.topic = topic;
+            this.questions = questions;
+        }
+    }
+
+    private QuizResultCache(Context context, long maxBytes) {
+        this.dir = new File(context.getCacheDir(), DIR_NAME);
+        this.maxBytes = maxBytes;
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create cache dir " + dir);
+        }
+    }
+
+    public static synchronized QuizResultCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new QuizResultCache(context.getApplicationContext(), DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    /**
+     * Hash the input and look it up off the main thread; the result is posted to the main thread.
+     * With bypass only the key is computed so a fresh result can replace the old entry.
+     */
+    public void lookup(String input, QuizSettings settings, boolean bypass, LookupCallback callback) {
+        executor.execute(() -> {
+            String key = buildKey(input, settings);
+            if (bypass) {
+                Log.d(TAG, "⏭️ Cache bypassed for regenerate");
+                mainHandler.post(() -> callback.onResult(key, null));
+                return;
+            }
+
+            CachedQuiz quiz = read(key);
+
+            if (quiz != null) {
+                int h = hits.incrementAndGet();
+                Log.d(TAG, "💾 Cache hit (" + h + " hits / " + misses.get() + " misses)");
+            } else {
+                int m = misses.incrementAndGet();
+                Log.d(TAG, "🌐 Cache miss (" + hits.get() + " hits / " + m + " misses)");
+            }
+            mainHandler.post(() -> callback.onResult(key, quiz));
+        });
+    }
+
+    /**
+     * Store a fresh result. The questions are serialized right away on the calling thread,
+     * before the UI gets a chance to mark them answered.
+     */
+    public void put(String key, String topic, List<QuizQuestion> questions) {
+        if (key == null || questions == null || questions.isEmpty()) return;
+        String json = gson.toJson(new CachedQuiz(topic, questions));
+
+        executor.execute(() -> {
+            File tmp = new File(dir, key + ".tmp");
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+                writer.write(json);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to write cache entry", e);
+                tmp.delete();
+                return;
+            }
+
+            File target = new File(dir, key + ".json");
+            if (!tmp.renameTo(target)) {
+                tmp.delete();
+                return;
+            }
+            trimToSize();
+        });
+    }
+
+    public int getHitCount() {
+        return hits.get();
+    }
+
+    public int getMissCount() {
+        return misses.get();
+    }
+
+    private CachedQuiz read(String key) {
+        File file = new File(dir, key + ".json");
+        if (!file.exists()) return null;
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            CachedQuiz quiz = gson.fromJson(reader, CachedQuiz.class);
+            if (quiz == null || quiz.questions == null || quiz.questions.isEmpty()) return null;
+
+            // Access time for LRU eviction
+            file.setLastModified(System.currentTimeMillis());
+            return quiz;
+        } catch (Exception e) {
+            Log.w(TAG, "Dropping unreadable cache entry " + key, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void trimToSize() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".json"));
+        if (files == null) return;
+
+        long total = 0;
+        for (File f : files) total += f.length();
+        if (total <= maxBytes) return;
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File f : files) {
+            if (total <= maxBytes) break;
+            total -= f.length();
+            f.delete();
+            Log.d(TAG, "🧹 Evicted " + f.getName());
+        }
+    }
+
+    /**
+     * SHA-256 over the whitespace-normalized input and the settings that shape the prompt
+     */
+    static String buildKey(String input, QuizSettings settings) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(normalize(input).getBytes(StandardCharsets.UTF_8));
+
+            String settingsPart = "|" + settings.getLanguage()
+                    + "|" + settings.getNumberOfQuestions()
+                    + "|" + settings.getDifficulty()
+                    + "|" + settings.isIncludeCodingQuestions();
+            digest.update(settingsPart.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static String normalize(String input) {
+        if (input == null) return "";
+        StringBuilder sb = new StringBuilder(input.length());
+        boolean space = false;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+            } else {
+                if (space) sb.append(' ');
+                space = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
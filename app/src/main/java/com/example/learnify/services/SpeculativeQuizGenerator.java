@@ -0,0 +1,211 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.learnify.modelclass.QuizQuestion;
+import com.example.learnify.modelclass.QuizSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Speculative quiz generation while the customizer dialog is open.
+ *
+ * Generation starts with the last-used (or default) settings as soon as the content is known.
+ * Everything that arrives is buffered. When the user confirms, the run is handed over if the
+ * settings match, otherwise it is cancelled and the caller starts a normal request.
+ *
+ * Main thread only, like every QuizNetworkService callback.
+ */
+public class SpeculativeQuizGenerator {
+
+    private static final String TAG = "SpeculativeQuiz";
+    private static final String PREF_NAME = "QuizSettingsPrefs";
+    private static final String KEY_COUNT = "last_question_count";
+    private static final String KEY_DIFFICULTY = "last_difficulty";
+    private static final String KEY_CODING = "last_include_coding";
+
+    // Process-wide metrics
+    private static final AtomicInteger hits = new AtomicInteger();
+    private static final AtomicInteger misses = new AtomicInteger();
+    private static final AtomicLong savedMillis = new AtomicLong();
+
+    private final QuizNetworkService service;
+    private Speculation current;
+
+    public SpeculativeQuizGenerator(QuizNetworkService service) {
+        this.service = service;
+    }
+
+    /**
+     * Start generating for input with the guessed settings; replaces any earlier speculation
+     */
+    public void start(String input, QuizSettings settings, boolean bypassCache) {
+        discard();
+        Log.d(TAG, "🔮 Speculating with " + settings.getNumberOfQuestions() + " questions, "
+                + settings.getDifficulty() + ", coding=" + settings.isIncludeCodingQuestions());
+        current = new Speculation(input, settings);
+        service.generateQuizStreaming(input, settings, bypassCache, current);
+    }
+
+    /**
+     * Hand the running speculation to target if it was made for this input and these settings.
+     * Returns false (and cancels the speculation) otherwise; the caller then generates normally.
+     */
+    public boolean claim(String input, QuizSettings confirmed, QuizNetworkService.QuizStreamCallback target) {
+        Speculation speculation = current;
+        if (speculation == null) return false;
+
+        if (!speculation.matches(input, confirmed) || speculation.error != null) {
+            discard();
+            int m = misses.incrementAndGet();
+            Log.d(TAG, "🙅 Speculation miss (" + hits.get() + " hits / " + m + " misses)");
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        long saved = (speculation.finishedAt > 0 ? speculation.finishedAt : now) - speculation.startedAt;
+        int h = hits.incrementAndGet();
+        long total = savedMillis.addAndGet(saved);
+        Log.d(TAG, "🎯 Speculation hit, saved " + saved + " ms (" + h + " hits / " + misses.get()
+                + " misses, " + total + " ms saved in total)");
+
+        speculation.attach(target);
+        return true;
+    }
+
+    /**
+     * Cancel whatever is still running for the current speculation
+     */
+    public void discard() {
+        if (current == null) return;
+        Speculation speculation = current;
+        current = null;
+        speculation.discarded = true;
+        service.cancel(speculation);
+    }
+
+    public static int getHitCount() {
+        return hits.get();
+    }
+
+    public static int getMissCount() {
+        return misses.get();
+    }
+
+    public static long getSavedMillis() {
+        return savedMillis.get();
+    }
+
+    /**
+     * Settings the user confirmed last time, or the customizer defaults, in the given language
+     */
+    public static QuizSettings getLastUsedSettings(Context context, String language) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        QuizSettings settings = new QuizSettings();
+        settings.setNumberOfQuestions(prefs.getInt(KEY_COUNT, settings.getNumberOfQuestions()));
+        try {
+            settings.setDifficulty(QuizSettings.Difficulty.valueOf(
+                    prefs.getString(KEY_DIFFICULTY, settings.getDifficulty().name())));
+        } catch (IllegalArgumentException ignored) {}
+        settings.setIncludeCodingQuestions(prefs.getBoolean(KEY_CODING, settings.isIncludeCodingQuestions()));
+        settings.setLanguage(language);
+        return settings;
+    }
+
+    public static void saveLastUsedSettings(Context context, QuizSettings settings) {
+        context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE).edit()
+                .putInt(KEY_COUNT, settings.getNumberOfQuestions())
+                .putString(KEY_DIFFICULTY, settings.getDifficulty().name())
+                .putBoolean(KEY_CODING, settings.isIncludeCodingQuestions())
+                .apply();
+    }
+
+    /**
+     * Buffers one speculative run until it is claimed, then forwards to the real callback
+     */
+    private static class Speculation implements QuizNetworkService.QuizStreamCallback {
+        private final String input;
+        private final QuizSettings settings;
+        private final long startedAt = System.currentTimeMillis();
+        private long finishedAt;
+        private boolean discarded = false;
+
+        private QuizNetworkService.QuizStreamCallback target;
+
+        private String topic;
+        private final List<QuizQuestion> questions = new ArrayList<>();
+        private int completedChunks = -1;
+        private int totalChunks;
+        private List<QuizQuestion> result;
+        private String resultTopic;
+        private String error;
+
+        Speculation(String input, QuizSettings settings) {
+            this.input = input;
+            this.settings = settings;
+        }
+
+        boolean matches(String otherInput, QuizSettings confirmed) {
+            return input.equals(otherInput) && settings.equals(confirmed);
+        }
+
+        void attach(QuizNetworkService.QuizStreamCallback target) {
+            this.target = target;
+            if (topic != null) target.onTopic(topic);
+            if (completedChunks >= 0) target.onProgress(completedChunks, totalChunks);
+            for (QuizQuestion q : questions) target.onQuestion(q);
+            if (result != null) target.onSuccess(result, resultTopic);
+        }
+
+        @Override
+        public void onTopic(String topic) {
+            if (discarded) return;
+            if (target != null) target.onTopic(topic);
+            else this.topic = topic;
+        }
+
+        @Override
+        public void onQuestion(QuizQuestion question) {
+            if (discarded) return;
+            if (target != null) target.onQuestion(question);
+            else questions.add(question);
+        }
+
+        @Override
+        public void onProgress(int completedChunks, int totalChunks) {
+            if (discarded) return;
+            if (target != null) {
+                target.onProgress(completedChunks, totalChunks);
+            } else {
+                this.completedChunks = completedChunks;
+                this.totalChunks = totalChunks;
+            }
+        }
+
+        @Override
+        public void onSuccess(List<QuizQuestion> quizQuestions, String topic) {
+            if (discarded) return;
+            finishedAt = System.currentTimeMillis();
+            if (target != null) {
+                target.onSuccess(quizQuestions, topic);
+            } else {
+                result = quizQuestions;
+                resultTopic = topic;
+            }
+        }
+
+        @Override
+        public void onError(String error) {
+            if (discarded) return;
+            finishedAt = System.currentTimeMillis();
+            if (target != null) target.onError(error);
+            // Unclaimed failures are not replayed, the confirmed request simply retries
+            else this.error = error;
+        }
+    }
+}
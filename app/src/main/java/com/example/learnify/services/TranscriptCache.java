@@ -0,0 +1,243 @@
+package com.example.learnify.services;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.learnify.modelclass.CaptionTrackManifest;
+import com.example.learnify.modelclass.TimedTranscript;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Two-tier transcript cache keyed by videoId + language, plus per-video caption timing and
+ * track manifests.
+ *
+ * A small in-memory LruCache sits in front of gzip files in the app cache dir. Disk entries
+ * expire after a TTL and the directory is trimmed least-recently-used past its byte cap.
+ * Disk work runs on a single background thread; callbacks are delivered on that thread
+ * (or the caller's thread for memory hits), matching YouTubeTranscriptService.
+ */
+public class TranscriptCache {
+
+    private static final String TAG = "TranscriptCache";
+    private static final String DIR_NAME = "transcripts";
+    private static final long DEFAULT_MAX_BYTES = 8 * 1024 * 1024;
+    private static final long DEFAULT_TTL_MS = TimeUnit.DAYS.toMillis(7);
+    // In characters, a long lecture transcript is ~100k
+    private static final int MEMORY_CHARS = 1024 * 1024;
+
+    private static TranscriptCache instance;
+
+    private final File dir;
+    private final long maxBytes;
+    private final long ttlMs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final LruCache<String, String> memory = new LruCache<String, String>(MEMORY_CHARS) {
+        @Override
+        protected int sizeOf(String key, String value) {
+            return value.length();
+        }
+    };
+
+    public interface LookupCallback {
+        void onResult(String transcript); // null on a miss
+    }
+
+    public interface TimedLookupCallback {
+        void onResult(TimedTranscript timed); // null on a miss
+    }
+
+    public interface ManifestLookupCallback {
+        void onResult(CaptionTrackManifest manifest); // null on a miss
+    }
+
+    private TranscriptCache(Context context, long maxBytes, long ttlMs) {
+        this.dir = new File(context.getCacheDir(), DIR_NAME);
+        this.maxBytes = maxBytes;
+        this.ttlMs = ttlMs;
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create cache dir " + dir);
+        }
+    }
+
+    public static synchronized TranscriptCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new TranscriptCache(context.getApplicationContext(), DEFAULT_MAX_BYTES, DEFAULT_TTL_MS);
+        }
+        return instance;
+    }
+
+    /**
+     * videoId plus the requested output language ("orig" when the transcript is not translated)
+     */
+    public static String buildKey(String videoId, String targetLang) {
+        String lang = targetLang == null || targetLang.isEmpty() ? "orig" : targetLang;
+        return videoId + "_" + lang.replaceAll("[^A-Za-z0-9-]", "");
+    }
+
+    public void get(String key, LookupCallback callback) {
+        String cached = memory.get(key);
+        if (cached != null) {
+            Log.d(TAG, "⚡ Memory hit " + key);
+            callback.onResult(cached);
+            return;
+        }
+
+        executor.execute(() -> {
+            byte[] bytes = read(key);
+            String transcript = bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+            if (transcript != null) {
+                Log.d(TAG, "💾 Disk hit " + key);
+                memory.put(key, transcript);
+            }
+            callback.onResult(transcript);
+        });
+    }
+
+    public void put(String key, String transcript) {
+        if (key == null || transcript == null || transcript.isEmpty()) return;
+        memory.put(key, transcript);
+        byte[] bytes = transcript.getBytes(StandardCharsets.UTF_8);
+        executor.execute(() -> write(key, bytes));
+    }
+
+    /**
+     * Segment timing for a transcript key (see buildKey), stored next to the text entries
+     * (disk only, it is small)
+     */
+    public void getTimed(String key, TimedLookupCallback callback) {
+        executor.execute(() -> {
+            byte[] bytes = read(timedKey(key));
+            TimedTranscript timed = null;
+            if (bytes != null) {
+                try {
+                    timed = TimedTranscript.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+                } catch (IOException e) {
+                    Log.w(TAG, "Unreadable timing for " + key, e);
+                }
+            }
+            callback.onResult(timed);
+        });
+    }
+
+    public void putTimed(String key, TimedTranscript timed) {
+        if (key == null || timed == null || timed.size() == 0) return;
+        executor.execute(() -> {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                timed.writeTo(new DataOutputStream(bytes));
+                write(timedKey(key), bytes.toByteArray());
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to encode timing for " + key, e);
+            }
+        });
+    }
+
+    private static String timedKey(String key) {
+        return key + "_timed";
+    }
+
+    /**
+     * Caption tracks available for a video; shares the text entries' memory tier and TTL
+     */
+    public void getManifest(String videoId, ManifestLookupCallback callback) {
+        get(manifestKey(videoId), json -> {
+            CaptionTrackManifest manifest = json != null ? CaptionTrackManifest.fromJson(json) : null;
+            callback.onResult(manifest != null && !manifest.isEmpty() ? manifest : null);
+        });
+    }
+
+    public void putManifest(String videoId, CaptionTrackManifest manifest) {
+        if (videoId == null || manifest == null || manifest.isEmpty()) return;
+        put(manifestKey(videoId), manifest.toJson());
+    }
+
+    private static String manifestKey(String videoId) {
+        return videoId + "_tracks";
+    }
+
+    private void write(String key, byte[] payload) {
+        File tmp = new File(dir, key + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(tmp)) {
+            // Write time header for the TTL; lastModified is used as the LRU access time
+            new DataOutputStream(file).writeLong(System.currentTimeMillis());
+            OutputStream out = new GZIPOutputStream(file);
+            out.write(payload);
+            out.close();
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to write transcript " + key, e);
+            tmp.delete();
+            return;
+        }
+
+        File target = new File(dir, key + ".gz");
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            return;
+        }
+        trimToSize();
+    }
+
+    private byte[] read(String key) {
+        File file = new File(dir, key + ".gz");
+        if (!file.exists()) return null;
+
+        try (FileInputStream fileIn = new FileInputStream(file)) {
+            long writtenAt = new DataInputStream(fileIn).readLong();
+            if (System.currentTimeMillis() - writtenAt > ttlMs) {
+                Log.d(TAG, "⌛ Expired " + key);
+                fileIn.close();
+                file.delete();
+                return null;
+            }
+
+            InputStream in = new GZIPInputStream(fileIn);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, n);
+            }
+            file.setLastModified(System.currentTimeMillis());
+            return bytes.toByteArray();
+        } catch (Exception e) {
+            Log.w(TAG, "Dropping unreadable transcript " + key, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void trimToSize() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".gz"));
+        if (files == null) return;
+
+        long total = 0;
+        for (File f : files) total += f.length();
+        if (total <= maxBytes) return;
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File f : files) {
+            if (total <= maxBytes) break;
+            total -= f.length();
+            f.delete();
+            Log.d(TAG, "🧹 Evicted " + f.getName());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.learnify.services;
+
+/**
+ * Single-pass transcript cleanup.
+ *
+ * Decodes HTML entities, drops [bracketed] and (parenthesized) annotations such as [Music] or
+ * (inaudible), and collapses whitespace, all in one sweep over the characters into a reused
+ * StringBuilder. Text can be fed in several ranges (one per caption line) and is treated as if
+ * it had been joined with spaces, so an annotation split across lines is still removed.
+ * An annotation that is never closed is kept as written.
+ *
+ * Instances are not thread-safe; use {@link #obtain()} for the calling thread's instance.
+ */
+class TranscriptNormalizer {
+
+    private static final ThreadLocal<TranscriptNormalizer> LOCAL = new ThreadLocal<TranscriptNormalizer>() {
+        @Override
+        protected TranscriptNormalizer initialValue() {
+            return new TranscriptNormalizer();
+        }
+    };
+
+    // Longest entity we decode, "&#x10FFFF;"
+    private static final int MAX_ENTITY_LENGTH = 10;
+    // Builders that grew for one huge transcript are not kept around
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private StringBuilder out = new StringBuilder(1024);
+    private StringBuilder annotation = new StringBuilder(64);
+    private char closing = 0; // ']' or ')' while inside an annotation
+    private boolean pendingSpace = false;
+
+    static TranscriptNormalizer obtain() {
+        TranscriptNormalizer normalizer = LOCAL.get();
+        normalizer.reset();
+        return normalizer;
+    }
+
+    /**
+     * Normalized copy of s, using the calling thread's instance
+     */
+    static String normalize(String s) {
+        if (s == null) return "";
+        return obtain().append(s, 0, s.length()).finish();
+    }
+
+    /**
+     * Only the entity decoding, for text where brackets and spacing are meaningful
+     */
+    static String decodeEntities(String s) {
+        if (s == null || s.indexOf('&') < 0) return s;
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int semicolon = c == '&' ? s.indexOf(';', i + 2) : -1;
+            int decoded = semicolon > 0 && semicolon <= i + MAX_ENTITY_LENGTH ? decodeEntity(s, i + 1, semicolon) : -1;
+            if (decoded >= 0) {
+                out.appendCodePoint(decoded);
+                i = semicolon;
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    void reset() {
+        if (out.capacity() > MAX_RETAINED_CAPACITY) out = new StringBuilder(1024);
+        else out.setLength(0);
+        annotation.setLength(0);
+        closing = 0;
+        pendingSpace = false;
+    }
+
+    /**
+     * Feed s[start, end); consecutive ranges are separated by whitespace
+     */
+    TranscriptNormalizer append(CharSequence s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '&') {
+                int semicolon = -1;
+                for (int j = i + 2; j < end && j <= i + MAX_ENTITY_LENGTH; j++) {
+                    if (s.charAt(j) == ';') {
+                        semicolon = j;
+                        break;
+                    }
+                }
+                int decoded = semicolon > 0 ? decodeEntity(s, i + 1, semicolon) : -1;
+                if (decoded >= 0) {
+                    if (Character.isBmpCodePoint(decoded)) {
+                        accept((char) decoded);
+                    } else {
+                        accept(Character.highSurrogate(decoded));
+                        accept(Character.lowSurrogate(decoded));
+                    }
+                    i = semicolon;
+                    continue;
+                }
+            }
+            accept(c);
+        }
+        accept(' ');
+        return this;
+    }
+
+    String finish() {
+        if (closing != 0) {
+            // Unclosed annotation: it was text after all, run it through again without the opener
+            char opener = closing == ']' ? '[' : '(';
+            String rest = annotation.toString();
+            closing = 0;
+            annotation.setLength(0);
+            acceptVisible(opener);
+            for (int i = 0; i < rest.length(); i++) accept(rest.charAt(i));
+            if (closing != 0) return finish();
+        }
+        return out.toString();
+    }
+
+    private void accept(char c) {
+        if (closing != 0) {
+            if (c == closing) {
+                closing = 0;
+                annotation.setLength(0);
+            } else {
+                annotation.append(c);
+            }
+            return;
+        }
+
+        if (c == '[' || c == '(') {
+            closing = c == '[' ? ']' : ')';
+            return;
+        }
+        if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+            pendingSpace = out.length() > 0;
+            return;
+        }
+        acceptVisible(c);
+    }
+
+    private void acceptVisible(char c) {
+        if (pendingSpace) {
+            out.append(' ');
+            pendingSpace = false;
+        }
+        out.append(c);
+    }
+
+    /**
+     * Code point for the entity name in s[start, end) (between '&' and ';'), or -1 if unknown
+     */
+    private static int decodeEntity(CharSequence s, int start, int end) {
+        if (s.charAt(start) == '#') {
+            boolean hex = end - start > 1 && (s.charAt(start + 1) == 'x' || s.charAt(start + 1) == 'X');
+            int value = 0;
+            int digitsFrom = start + (hex ? 2 : 1);
+            if (digitsFrom >= end) return -1;
+            for (int i = digitsFrom; i < end; i++) {
+                int digit = Character.digit(s.charAt(i), hex ? 16 : 10);
+                if (digit < 0) return -1;
+                value = value * (hex ? 16 : 10) + digit;
+                if (value > Character.MAX_CODE_POINT) return -1;
+            }
+            return value;
+        }
+
+        switch (end - start) {
+            case 2:
+                if (matches(s, start, "lt")) return '<';
+                if (matches(s, start, "gt")) return '>';
+                return -1;
+            case 3:
+                return matches(s, start, "amp") ? '&' : -1;
+            case 4:
+                if (matches(s, start, "quot")) return '"';
+                if (matches(s, start, "apos")) return '\'';
+                if (matches(s, start, "nbsp")) return ' ';
+                return -1;
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean matches(CharSequence s, int start, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (s.charAt(start + i) != name.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.learnify.services;
+
+import android.util.Log;
+import android.util.LruCache;
+
+import org.json.JSONArray;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Chunked transcript translation.
+ *
+ * The text is packed sentence by sentence into chunks whose URL-encoded form fits one GET
+ * request, the chunks are translated in parallel (at most maxConcurrent at a time) and put back
+ * together in their original order. Each translated chunk is remembered by a hash of its source
+ * text, so translating the same transcript again costs no requests. A chunk that fails keeps its
+ * original text, like the old single-request translation did for the whole transcript.
+ *
+ * Callbacks arrive on an OkHttp thread, like the rest of YouTubeTranscriptService.
+ */
+class TranscriptTranslator {
+
+    private static final String TAG = "TranscriptTranslator";
+    private static final String TRANSLATE_URL = "https://translate.googleapis.com/translate_a/single?client=gtx&dt=t";
+
+    // Encoded query length per request; keeps the whole URL well under the usual 8 KB limits
+    private static final int MAX_ENCODED_CHARS = 5000;
+    // In characters of translated text
+    private static final int CACHE_CHARS = 512 * 1024;
+
+    private static final LruCache<String, String> chunkCache = new LruCache<String, String>(CACHE_CHARS) {
+        @Override
+        protected int sizeOf(String key, String value) {
+            return value.length();
+        }
+    };
+
+    interface Listener {
+        void onTranslated(String text);
+    }
+
+    private final OkHttpClient client;
+    private final int maxConcurrent;
+
+    TranscriptTranslator(OkHttpClient client, int maxConcurrent) {
+        this.client = client;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+    }
+
+    /**
+     * Translate text from one language to another; always answers, falling back to the source text
+     */
+    void translate(String text, String from, String to, Listener listener) {
+        List<String> chunks = split(text);
+        if (chunks.isEmpty()) {
+            listener.onTranslated(text);
+            return;
+        }
+        new Run(chunks, from, to, listener).start();
+    }
+
+    /**
+     * Sentences packed greedily into chunks that stay under MAX_ENCODED_CHARS once URL-encoded
+     */
+    static List<String> split(String text) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        int chunkEncoded = 0;
+
+        for (String sentence : ExtractiveSummarizer.splitSentences(text)) {
+            for (String piece : fitToLimit(sentence)) {
+                int encoded = encodedLength(piece) + 3; // "%20" separator
+                if (chunk.length() > 0 && chunkEncoded + encoded > MAX_ENCODED_CHARS) {
+                    chunks.add(chunk.toString());
+                    chunk.setLength(0);
+                    chunkEncoded = 0;
+                }
+                if (chunk.length() > 0) chunk.append(' ');
+                chunk.append(piece);
+                chunkEncoded += encoded;
+            }
+        }
+        if (chunk.length() > 0) chunks.add(chunk.toString());
+        return chunks;
+    }
+
+    /**
+     * A single sentence can still be too long (e.g. 40 words of CJK text); cut it by characters
+     */
+    private static List<String> fitToLimit(String sentence) {
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        while (start < sentence.length()) {
+            int end = sentence.length();
+            while (encodedLength(sentence.substring(start, end)) > MAX_ENCODED_CHARS) {
+                end = start + (end - start) / 2;
+            }
+            // Do not split a surrogate pair
+            if (end < sentence.length() && end - 1 > start && Character.isHighSurrogate(sentence.charAt(end - 1))) end--;
+            pieces.add(sentence.substring(start, end));
+            start = end;
+        }
+        return pieces;
+    }
+
+    private static int encodedLength(String s) {
+        try {
+            return URLEncoder.encode(s, "UTF-8").length();
+        } catch (UnsupportedEncodingException e) {
+            return s.length() * 9;
+        }
+    }
+
+    private static String cacheKey(String from, String to, String chunk) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(chunk.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(from).append('>').append(to).append(':');
+            for (byte b : hash) key.append(String.format("%02x", b));
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return from + ">" + to + ":" + chunk;
+        }
+    }
+
+    /**
+     * State of one translation; every field is guarded by the Run's monitor
+     */
+    private class Run {
+        private final List<String> chunks;
+        private final String from;
+        private final String to;
+        private final Listener listener;
+        private final long startedAt = System.currentTimeMillis();
+
+        private final String[] results;
+        private int nextToLaunch = 0;
+        private int remaining;
+        private int cacheHits = 0;
+        private int failures = 0;
+
+        Run(List<String> chunks, String from, String to, Listener listener) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.listener = listener;
+            this.results = new String[chunks.size()];
+            this.remaining = chunks.size();
+        }
+
+        void start() {
+            // Cached chunks are filled in up front, only the rest go over the network
+            List<Integer> pending = new ArrayList<>();
+            synchronized (this) {
+                for (int i = 0; i < chunks.size(); i++) {
+                    String cached = chunkCache.get(cacheKey(from, to, chunks.get(i)));
+                    if (cached != null) {
+                        results[i] = cached;
+                        cacheHits++;
+                        remaining--;
+                    }
+                }
+            }
+            Log.d(TAG, "🌐 Translating " + chunks.size() + " chunks " + from + " → " + to
+                    + " (" + cacheHits + " cached)");
+
+            if (remaining == 0) {
+                deliver();
+                return;
+            }
+            synchronized (this) {
+                pending.addAll(fill());
+            }
+            for (int index : pending) launch(index);
+        }
+
+        private List<Integer> fill() {
+            List<Integer> toLaunch = new ArrayList<>();
+            int running = 0;
+            for (int i = 0; i < nextToLaunch; i++) {
+                if (results[i] == null) running++;
+            }
+            while (running < maxConcurrent && nextToLaunch < chunks.size()) {
+                int index = nextToLaunch++;
+                if (results[index] != null) continue;
+                toLaunch.add(index);
+                running++;
+            }
+            return toLaunch;
+        }
+
+        private void launch(int index) {
+            String chunk = chunks.get(index);
+            String url;
+            try {
+                url = TRANSLATE_URL + "&sl=" + from + "&tl=" + to + "&q=" + URLEncoder.encode(chunk, "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                complete(index, null);
+                return;
+            }
+
+            client.newCall(new Request.Builder().url(url).build()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.e(TAG, "Translation of chunk " + index + " failed", e);
+                    complete(index, null);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    String translated = null;
+                    try (Response r = response) {
+                        if (r.isSuccessful() && r.body() != null) {
+                            translated = parse(r.body().string());
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "Translation parse error for chunk " + index, e);
+                    }
+                    complete(index, translated);
+                }
+            });
+        }
+
+        private void complete(int index, String translated) {
+            List<Integer> toLaunch;
+            boolean done;
+            synchronized (this) {
+                if (translated != null && !translated.isEmpty()) {
+                    chunkCache.put(cacheKey(from, to, chunks.get(index)), translated);
+                    results[index] = translated;
+                } else {
+                    // Keep the source text for this part rather than dropping it
+                    results[index] = chunks.get(index);
+                    failures++;
+                }
+                remaining--;
+                done = remaining == 0;
+                toLaunch = done ? new ArrayList<>() : fill();
+            }
+
+            if (done) {
+                deliver();
+            } else {
+                for (int next : toLaunch) launch(next);
+            }
+        }
+
+        private void deliver() {
+            StringBuilder sb = new StringBuilder();
+            synchronized (this) {
+                for (String part : results) {
+                    if (sb.length() > 0) sb.append(' ');
+                    sb.append(part);
+                }
+            }
+            Log.d(TAG, "✅ Translated " + chunks.size() + " chunks in " + (System.currentTimeMillis() - startedAt)
+                    + " ms (" + cacheHits + " cached, " + failures + " failed)");
+            listener.onTranslated(sb.toString());
+        }
+    }
+
+    private static String parse(String body) throws Exception {
+        JSONArray arr = new JSONArray(body);
+        StringBuilder sb = new StringBuilder();
+        JSONArray t = arr.getJSONArray(0);
+        for (int i = 0; i < t.length(); i++) {
+            sb.append(t.getJSONArray(i).getString(0));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.learnify.services;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming scan of a YouTube watch page for the captionTracks array.
+ *
+ * The page is read in small chunks and only the characters of the captionTracks JSON array are
+ * kept, so the 1 MB+ HTML is never held as one String. Reading stops as soon as the array is
+ * closed, or when ytInitialData starts after a player response without captions, and only that
+ * slice is handed to JSONArray.
+ */
+class WatchPageScanner {
+
+    private static final String TRACKS_MARKER = "\"captionTracks\":";
+    private static final String PLAYER_MARKER = "ytInitialPlayerResponse";
+    private static final String END_MARKER = "ytInitialData";
+    private static final int CHUNK_SIZE = 8192;
+    // A page with dozens of translated tracks is still well under this
+    private static final int MAX_TRACKS_CHARS = 512 * 1024;
+
+    static class Result {
+        final JSONArray captionTracks; // null when the page has none (or they could not be parsed)
+        final long charsRead;
+        final boolean stoppedEarly;
+        final boolean noCaptions; // the player response ended without a captionTracks array
+
+        Result(JSONArray captionTracks, long charsRead, boolean stoppedEarly) {
+            this(captionTracks, charsRead, stoppedEarly, false);
+        }
+
+        Result(JSONArray captionTracks, long charsRead, boolean stoppedEarly, boolean noCaptions) {
+            this.captionTracks = captionTracks;
+            this.charsRead = charsRead;
+            this.stoppedEarly = stoppedEarly;
+            this.noCaptions = noCaptions;
+        }
+    }
+
+    private WatchPageScanner() {}
+
+    static Result scan(Reader reader) throws IOException {
+        char[] buffer = new char[CHUNK_SIZE];
+        // Tail of the previous chunks, long enough for a marker split across two reads
+        StringBuilder window = new StringBuilder(CHUNK_SIZE + TRACKS_MARKER.length());
+        long charsRead = 0;
+        boolean seenPlayer = false;
+        int n;
+
+        while ((n = reader.read(buffer)) != -1) {
+            charsRead += n;
+            int searchFrom = Math.max(0, window.length() - TRACKS_MARKER.length());
+            window.append(buffer, 0, n);
+
+            int marker = window.indexOf(TRACKS_MARKER, searchFrom);
+            if (marker >= 0) {
+                String rest = window.substring(marker + TRACKS_MARKER.length());
+                return captureTracks(reader, buffer, rest, charsRead);
+            }
+            int from = Math.max(0, searchFrom - PLAYER_MARKER.length());
+            if (!seenPlayer) {
+                int player = window.indexOf(PLAYER_MARKER, from);
+                seenPlayer = player >= 0;
+                from = player;
+            }
+            if (seenPlayer && window.indexOf(END_MARKER, from) >= 0) {
+                // The player response is over and had no captions
+                return new Result(null, charsRead, true, true);
+            }
+
+            int keep = Math.max(TRACKS_MARKER.length(), PLAYER_MARKER.length());
+            if (window.length() > keep) window.delete(0, window.length() - keep);
+        }
+        return new Result(null, charsRead, false);
+    }
+
+    /**
+     * Copy the bracket-balanced array that starts in head (after the marker), reading more as needed
+     */
+    private static Result captureTracks(Reader reader, char[] buffer, String head, long charsRead) throws IOException {
+        StringBuilder tracks = new StringBuilder(4096);
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean started = false;
+
+        char[] chunk = head.toCharArray();
+        int length = chunk.length;
+        while (true) {
+            for (int i = 0; i < length; i++) {
+                char c = chunk[i];
+                if (!started) {
+                    if (c == '[') {
+                        started = true;
+                        depth = 1;
+                        tracks.append(c);
+                    } else if (!Character.isWhitespace(c)) {
+                        return new Result(null, charsRead, true);
+                    }
+                    continue;
+                }
+
+                tracks.append(c);
+                if (inString) {
+                    if (escaped) escaped = false;
+                    else if (c == '\\') escaped = true;
+                    else if (c == '"') inString = false;
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '[' || c == '{') {
+                    depth++;
+                } else if ((c == ']' || c == '}') && --depth == 0) {
+                    return new Result(parse(tracks.toString()), charsRead, true);
+                }
+            }
+
+            if (tracks.length() > MAX_TRACKS_CHARS) return new Result(null, charsRead, true);
+            length = reader.read(buffer);
+            if (length == -1) return new Result(null, charsRead, false);
+            charsRead += length;
+            chunk = buffer;
+        }
+    }
+
+    private static JSONArray parse(String json) {
+        try {
+            return new JSONArray(json);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+}
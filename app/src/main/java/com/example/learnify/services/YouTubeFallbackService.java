@@ -1,93 +1,250 @@
 package com.example.learnify.services;
 
+import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
+import android.util.LruCache;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URLEncoder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Video title/description/keywords for when there is no transcript.
+ *
+ * YouTube's oEmbed endpoint (a few hundred bytes with the title and channel) and the watch page,
+ * read only up to the end of its head for the description and keywords, are requested at the
+ * same time. A 404 from oEmbed means the video is gone: the error is reported right away and the
+ * page request is cancelled. Results are cached per video for the life of the process.
+ */
 public class YouTubeFallbackService {
 
     private static final String TAG = "YouTubeFallback";
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final String OEMBED_URL = "https://www.youtube.com/oembed?format=json&url=";
+    private static final Pattern VIDEO_ID = Pattern.compile("(?:v=|youtu\\.be/|/shorts/|/embed/|/live/)([A-Za-z0-9_-]{11})");
+
+    // videoId (or url) → formatted metadata
+    private static final LruCache<String, String> metadataCache = new LruCache<>(32);
+
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final OkHttpClient client;
 
     public interface MetadataCallback {
         void onSuccess(String content); // Returns combined Title + Desc + Tags
         void onError(String error);
     }
 
+    public YouTubeFallbackService() {
+        this(null);
+    }
+
+    public YouTubeFallbackService(Context context) {
+        this.client = HttpClientProvider.getInstance(context).getMetadataClient();
+    }
+
     public void getVideoMetadata(String videoUrl, MetadataCallback callback) {
-        executor.execute(() -> {
-            try {
-                // 1. Prepare the connection
-                URL url = new URL(videoUrl);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                // IMPORTANT: Use a Desktop User-Agent to ensure we get the full HTML page
-                conn.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36");
-                conn.setConnectTimeout(5000);
-                conn.setReadTimeout(5000);
-
-                // 2. Read the page content
-                BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                StringBuilder html = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    html.append(line);
-                }
-                reader.close();
+        String key = cacheKey(videoUrl);
+        String cached = metadataCache.get(key);
+        if (cached != null) {
+            Log.d(TAG, "⚡ Metadata cache hit for " + key);
+            notifySuccess(callback, cached);
+            return;
+        }
 
-                String fullHtml = html.toString();
+        // Both requests go out at once; the head is usually the slower one
+        Lookup lookup = new Lookup(key, callback);
+        lookup.headCall = fetchHead(videoUrl, lookup);
+        fetchOEmbed(videoUrl, lookup);
+    }
 
-                // 3. Extract Data using Regex (Robust for Meta tags)
-                String title = extractMetaTag(fullHtml, "title");
-                String description = extractMetaTag(fullHtml, "description");
-                String keywords = extractMetaTag(fullHtml, "keywords");
+    /**
+     * Results of the two concurrent requests for one video; delivered once both are in
+     */
+    private class Lookup {
+        final String key;
+        final MetadataCallback callback;
+        Call headCall;
 
-                // 4. Validate
-                if (description.isEmpty() && title.isEmpty()) {
-                    notifyError(callback, "Could not extract metadata");
-                    return;
-                }
+        // Guarded by this Lookup
+        boolean oEmbedDone = false;
+        boolean headDone = false;
+        boolean finished = false;
+        String title;
+        String author;
+        HeadMetaScanner.Result head;
+        String headError;
+
+        Lookup(String key, MetadataCallback callback) {
+            this.key = key;
+            this.callback = callback;
+        }
+
+        void onOEmbed(String title, String author) {
+            synchronized (this) {
+                if (finished) return;
+                oEmbedDone = true;
+                this.title = title;
+                this.author = author;
+                if (!headDone) return;
+                finished = true;
+            }
+            deliver(this);
+        }
+
+        /**
+         * Deleted or never existed: the page would not have anything either
+         */
+        void onUnavailable() {
+            synchronized (this) {
+                if (finished) return;
+                finished = true;
+            }
+            if (headCall != null) headCall.cancel();
+            notifyError(callback, "Video unavailable");
+        }
+
+        void onHead(HeadMetaScanner.Result head, String error) {
+            synchronized (this) {
+                if (finished) return;
+                headDone = true;
+                this.head = head;
+                this.headError = error;
+                if (!oEmbedDone) return;
+                finished = true;
+            }
+            deliver(this);
+        }
+    }
 
-                // 5. Format the result for the AI
-                StringBuilder result = new StringBuilder();
-                result.append("Video Title: ").append(title).append("\n\n");
-                result.append("Description:\n").append(description).append("\n\n");
-                if (!keywords.isEmpty()) {
-                    result.append("Keywords/Tags: ").append(keywords);
+    // oEmbed, title and channel in one small JSON response
+    private void fetchOEmbed(String videoUrl, Lookup lookup) {
+        Request request;
+        try {
+            request = new Request.Builder()
+                    .url(OEMBED_URL + URLEncoder.encode(videoUrl, "UTF-8"))
+                    .build();
+        } catch (Exception e) {
+            lookup.onOEmbed(null, null);
+            return;
+        }
+
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.w(TAG, "oEmbed failed, relying on the page head", e);
+                lookup.onOEmbed(null, null);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                String title = null;
+                String author = null;
+                try (Response r = response) {
+                    if (r.code() == 404) {
+                        lookup.onUnavailable();
+                        return;
+                    }
+                    if (r.isSuccessful() && r.body() != null) {
+                        JSONObject json = new JSONObject(r.body().string());
+                        title = json.optString("title", null);
+                        author = json.optString("author_name", null);
+                    }
+                } catch (Exception e) {
+                    Log.w(TAG, "oEmbed parse error", e);
                 }
+                lookup.onOEmbed(title, author);
+            }
+        });
+    }
 
-                Log.d(TAG, "Fallback extraction successful. Length: " + result.length());
-                notifySuccess(callback, result.toString());
+    // Watch page <head> for description and keywords
+    private Call fetchHead(String videoUrl, Lookup lookup) {
+        Request request = new Request.Builder()
+                .url(videoUrl)
+                // IMPORTANT: Use a Desktop User-Agent to ensure we get the full HTML page
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
+                .build();
 
-            } catch (Exception e) {
+        Call call = client.newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (call.isCanceled()) return;
                 Log.e(TAG, "Fallback failed", e);
-                notifyError(callback, e.getMessage());
+                lookup.onHead(null, e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                HeadMetaScanner.Result head = null;
+                String error = null;
+                long start = System.currentTimeMillis();
+                try (Response r = response) {
+                    if (r.isSuccessful() && r.body() != null) {
+                        head = HeadMetaScanner.scan(r.body().charStream());
+                        Log.d(TAG, "📄 Head scanned, " + head.charsRead / 1024 + " KB in "
+                                + (System.currentTimeMillis() - start) + " ms");
+                    } else {
+                        error = "HTTP " + r.code();
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Fallback failed", e);
+                    error = e.getMessage();
+                }
+                lookup.onHead(head, error);
             }
         });
+        return call;
     }
 
-    // Helper to find <meta name="..." content="...">
-    private String extractMetaTag(String html, String name) {
-        try {
-            // Looks for <meta name="description" content="THIS TEXT">
-            Pattern pattern = Pattern.compile("<meta name=\"" + name + "\" content=\"(.*?)\"");
-            Matcher matcher = pattern.matcher(html);
-            if (matcher.find()) {
-                return matcher.group(1);
-            }
-        } catch (Exception e) {
-            Log.w(TAG, "Could not extract " + name);
+    private void deliver(Lookup lookup) {
+        String key = lookup.key;
+        String oEmbedTitle = lookup.title;
+        String author = lookup.author;
+        HeadMetaScanner.Result head = lookup.head;
+        MetadataCallback callback = lookup.callback;
+        String error = lookup.headError;
+
+        String title = head != null && !head.title.isEmpty() ? head.title : (oEmbedTitle != null ? oEmbedTitle : "");
+        String description = head != null ? head.description : "";
+        String keywords = head != null ? head.keywords : "";
+
+        // Validate
+        if (description.isEmpty() && title.isEmpty()) {
+            notifyError(callback, error != null ? error : "Could not extract metadata");
+            return;
         }
-        return "";
+
+        // Format the result for the AI
+        StringBuilder result = new StringBuilder();
+        result.append("Video Title: ").append(title).append("\n\n");
+        if (author != null && !author.isEmpty()) {
+            result.append("Channel: ").append(author).append("\n\n");
+        }
+        result.append("Description:\n").append(description).append("\n\n");
+        if (!keywords.isEmpty()) {
+            result.append("Keywords/Tags: ").append(keywords);
+        }
+
+        // Title-only results (page head failed) are not cached, a retry may do better
+        if (!description.isEmpty()) metadataCache.put(key, result.toString());
+        Log.d(TAG, "Fallback extraction successful. Length: " + result.length());
+        notifySuccess(callback, result.toString());
+    }
+
+    private static String cacheKey(String videoUrl) {
+        Matcher m = VIDEO_ID.matcher(videoUrl);
+        return m.find() ? m.group(1) : videoUrl.trim();
     }
 
     private void notifySuccess(MetadataCallback callback, String content) {
@@ -97,4 +254,4 @@ public class YouTubeFallbackService {
     private void notifyError(MetadataCallback callback, String error) {
         mainHandler.post(() -> callback.onError(error));
     }
-}
\ No newline at end of file
+}
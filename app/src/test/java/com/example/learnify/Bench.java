@@ -0,0 +1,69 @@
+package com.example.learnify;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Minimal JVM microbenchmark loop for local unit tests.
+ *
+ * Runs a warm-up phase, then times the measured iterations and, where the JVM supports it,
+ * counts the bytes allocated by the calling thread. Results are printed and returned; tests
+ * assert correctness only, timings vary too much between machines to assert on.
+ */
+public final class Bench {
+
+    public static final class Result {
+        public final String name;
+        public final double nanosPerOp;
+        public final long bytesPerOp; // -1 when allocation counting is unavailable
+
+        Result(String name, double nanosPerOp, long bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-40s %10.1f us/op %12s",
+                    name, nanosPerOp / 1000.0, bytesPerOp >= 0 ? (bytesPerOp / 1024) + " KB/op" : "n/a");
+        }
+    }
+
+    public interface Op {
+        Object run() throws Exception;
+    }
+
+    // Results are stored here so the JIT cannot drop the work
+    private static volatile Object sink;
+
+    private Bench() {}
+
+    public static Result run(String name, int warmup, int iterations, Op op) throws Exception {
+        for (int i = 0; i < warmup; i++) sink = op.run();
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink = op.run();
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+
+        long bytesPerOp = allocatedBefore >= 0 && allocatedAfter >= 0
+                ? (allocatedAfter - allocatedBefore) / iterations : -1;
+        Result result = new Result(name, elapsed / (double) iterations, bytesPerOp);
+        System.out.println(result);
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
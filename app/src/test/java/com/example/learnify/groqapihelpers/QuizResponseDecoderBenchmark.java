@@ -0,0 +1,109 @@
+package com.example.learnify.groqapihelpers;
+
+import com.example.learnify.Bench;
+import com.example.learnify.modelclass.QuizQuestion;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * QuizResponseDecoder against the previous tree-based parsing of a chat completion
+ * (body string, JsonParser tree, fence stripping with String.replace, Gson list binding).
+ */
+public class QuizResponseDecoderBenchmark {
+
+    private static final int QUESTIONS = 15;
+
+    private final Gson gson = new Gson();
+    private final QuizResponseDecoder decoder = new QuizResponseDecoder(gson);
+
+    @Test
+    public void decodesTopicAndQuestions() throws Exception {
+        QuizResponseDecoder.DecodedQuiz quiz = decoder.decodeCompletion(new StringReader(completion(3)));
+        assertEquals("Photosynthesis", quiz.topic);
+        assertEquals(3, quiz.questions.size());
+        assertEquals("Question 2 about light reactions?", quiz.questions.get(1).questionText);
+        assertEquals(4, quiz.questions.get(0).options.size());
+    }
+
+    @Test
+    public void contentWithoutQuestionsDecodesEmpty() throws Exception {
+        // QuizNetworkService reports this as "Empty response from AI"
+        QuizResponseDecoder.DecodedQuiz quiz = decoder.decodeContent(new StringReader("{\"topic\": \"Nothing\"}"));
+        assertTrue(quiz.questions.isEmpty());
+    }
+
+    @Test
+    public void benchmarkAgainstTreeParsing() throws Exception {
+        String body = completion(QUESTIONS);
+
+        List<QuizQuestion> streamed = decoder.decodeCompletion(new StringReader(body)).questions;
+        List<QuizQuestion> tree = decodeWithTree(body);
+        assertEquals(tree.size(), streamed.size());
+        for (int i = 0; i < tree.size(); i++) {
+            assertEquals(tree.get(i).questionText, streamed.get(i).questionText);
+            assertEquals(tree.get(i).correctAnswer, streamed.get(i).correctAnswer);
+        }
+
+        System.out.println("Decoding a " + QUESTIONS + "-question completion (" + body.length() / 1024 + " KB)");
+        Bench.Result baseline = Bench.run("tree (JsonParser + replace)", 500, 2000, () -> decodeWithTree(body));
+        Bench.Result single = Bench.run("QuizResponseDecoder", 500, 2000,
+                () -> decoder.decodeCompletion(new StringReader(body)));
+        assertTrue(baseline.nanosPerOp > 0 && single.nanosPerOp > 0);
+    }
+
+    /**
+     * The parsing QuizNetworkService did before the decoder
+     */
+    private List<QuizQuestion> decodeWithTree(String body) {
+        JsonObject envelope = JsonParser.parseString(body).getAsJsonObject();
+        String content = envelope.getAsJsonArray("choices").get(0).getAsJsonObject()
+                .getAsJsonObject("message").get("content").getAsString();
+        String quizJsonText = content.replace("```json", "").replace("```", "").trim();
+        JsonObject root = JsonParser.parseString(quizJsonText).getAsJsonObject();
+        JsonArray questionsArray = root.getAsJsonArray("questions");
+        Type listType = new TypeToken<ArrayList<QuizQuestion>>() {}.getType();
+        return gson.fromJson(questionsArray, listType);
+    }
+
+    private String completion(int questions) {
+        StringBuilder quiz = new StringBuilder("```json\n{\"topic\": \"Photosynthesis\", \"questions\": [");
+        for (int i = 1; i <= questions; i++) {
+            if (i > 1) quiz.append(',');
+            quiz.append("{\"questionText\": \"Question ").append(i).append(" about light reactions?\",")
+                    .append("\"type\": \"MCQ\", \"difficulty\": \"MEDIUM\", \"timeLimit\": 1.0,")
+                    .append("\"options\": [\"Chlorophyll absorbs light\", \"Glucose is split\", ")
+                    .append("\"Oxygen is consumed\", \"CO2 is released\"],")
+                    .append("\"correctAnswer\": \"Chlorophyll absorbs light\",")
+                    .append("\"explanation\": \"The light-dependent reactions start when chlorophyll in the ")
+                    .append("thylakoid membranes absorbs photons and excites electrons.\"}");
+        }
+        quiz.append("]}\n```");
+
+        JsonObject message = new JsonObject();
+        message.addProperty("role", "assistant");
+        message.addProperty("content", quiz.toString());
+        JsonObject choice = new JsonObject();
+        choice.addProperty("index", 0);
+        choice.add("message", message);
+        choice.addProperty("finish_reason", "stop");
+        JsonArray choices = new JsonArray();
+        choices.add(choice);
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("id", "chatcmpl-test");
+        envelope.addProperty("model", "llama-3.1-8b-instant");
+        envelope.add("choices", choices);
+        return gson.toJson(envelope);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.learnify.services;
+
+import com.example.learnify.Bench;
+
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.Test;
+import org.kxml2.io.KXmlParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * DocxStreamExtractor against POI's XWPFWordExtractor, which HomeFragment used before, on
+ * generated documents with and without embedded images.
+ */
+public class DocxStreamExtractorBenchmark {
+
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    @Test
+    public void readsParagraphsTabsBreaksAndTables() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFRun run = doc.createParagraph().createRun();
+        run.setText("Light reactions");
+        run.addTab();
+        run.setText("thylakoid");
+        run.addBreak();
+        run.setText("Calvin cycle");
+        XWPFTable table = doc.createTable(1, 2);
+        table.getRow(0).getCell(0).setText("ATP");
+        table.getRow(0).getCell(1).setText("NADPH");
+
+        String text = DocxStreamExtractor.extract(new ByteArrayInputStream(save(doc)), new KXmlParser());
+        assertTrue(text, text.startsWith("Light reactions\tthylakoid\nCalvin cycle\n"));
+        assertTrue(text, text.contains("ATP\n") && text.contains("NADPH\n"));
+    }
+
+    @Test
+    public void alternateContentIsReadOnce() throws Exception {
+        String body = "<w:p><w:r><w:t>Before</w:t></w:r></w:p>"
+                + "<w:p><w:r><mc:AlternateContent>"
+                + "<mc:Choice Requires=\"wps\"><w:drawing><w:txbxContent>"
+                + "<w:p><w:r><w:t>Text box</w:t></w:r></w:p>"
+                + "</w:txbxContent></w:drawing></mc:Choice>"
+                + "<mc:Fallback><w:pict><w:txbxContent>"
+                + "<w:p><w:r><w:t>Text box</w:t></w:r></w:p>"
+                + "</w:txbxContent></w:pict></mc:Fallback>"
+                + "</mc:AlternateContent></w:r></w:p>"
+                + "<w:p><w:r><w:t>After</w:t></w:r></w:p>";
+
+        String text = DocxStreamExtractor.extract(new ByteArrayInputStream(docx(body)), new KXmlParser());
+        assertEquals("Before\nText box\n\nAfter\n", text);
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void zipWithoutBodyIsRejected() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("readme.txt"));
+            zip.write("not a document".getBytes(StandardCharsets.UTF_8));
+        }
+        DocxStreamExtractor.extract(new ByteArrayInputStream(bytes.toByteArray()), new KXmlParser());
+    }
+
+    @Test
+    public void benchmarkAgainstXwpfWordExtractor() throws Exception {
+        for (int images : new int[]{0, 8}) {
+            byte[] file = document(400, images);
+            String streamed = DocxStreamExtractor.extract(new ByteArrayInputStream(file), new KXmlParser());
+            String poi;
+            try (XWPFWordExtractor extractor = new XWPFWordExtractor(new XWPFDocument(new ByteArrayInputStream(file)))) {
+                poi = extractor.getText();
+            }
+            assertEquals(poi.trim(), streamed.trim());
+
+            System.out.println("400 paragraphs, " + images + " images (" + file.length / 1024 + " KB .docx)");
+            Bench.run("XWPFWordExtractor", 3, 10, () -> {
+                try (XWPFWordExtractor extractor = new XWPFWordExtractor(new XWPFDocument(new ByteArrayInputStream(file)))) {
+                    return extractor.getText();
+                }
+            });
+            Bench.run("DocxStreamExtractor", 3, 10,
+                    () -> DocxStreamExtractor.extract(new ByteArrayInputStream(file), new KXmlParser()));
+        }
+    }
+
+    private static byte[] document(int paragraphs, int images) throws Exception {
+        Random random = new Random(42);
+        XWPFDocument doc = new XWPFDocument();
+        for (int i = 0; i < paragraphs; i++) {
+            XWPFParagraph paragraph = doc.createParagraph();
+            paragraph.createRun().setText("Paragraph " + i + ": the light-dependent reactions take place in the "
+                    + "thylakoid membranes, where chlorophyll absorbs photons and splits water.");
+            if (images > 0 && i % (paragraphs / images) == 0) {
+                // Incompressible, like the photos in a real document
+                byte[] png = new byte[512 * 1024];
+                random.nextBytes(png);
+                doc.addPictureData(png, Document.PICTURE_TYPE_PNG);
+            }
+        }
+        return save(doc);
+    }
+
+    private static byte[] save(XWPFDocument doc) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        doc.write(bytes);
+        doc.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Smallest zip the extractor accepts, with body as the content of w:body
+     */
+    private static byte[] docx(String body) throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<w:document xmlns:w=\"" + W + "\""
+                + " xmlns:mc=\"http://schemas.openxmlformats.org/markup-compatibility/2006\">"
+                + "<w:body>" + body + "</w:body></w:document>";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(xml.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.learnify.services;
+
+import com.example.learnify.Bench;
+import com.example.learnify.groqapihelpers.QuizPromptTemplate;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * ExtractiveSummarizer on transcript-sized input: output stays within the token budget,
+ * keeps the original sentence order, and the cost per 100 KB of input.
+ */
+public class ExtractiveSummarizerBenchmark {
+
+    private static final String[] TOPICS = {
+            "mitochondria produce ATP through oxidative phosphorylation across the inner membrane",
+            "the French revolution began with the fiscal crisis and the meeting of the Estates General",
+            "binary search halves the interval on every comparison until the target is found",
+            "supply and demand curves meet at the equilibrium price of a competitive market",
+            "plate tectonics explains earthquakes and volcanoes along the boundaries of moving plates",
+    };
+    private static final String[] FILLER = {"[Music]", "um so yeah", "okay", "right so"};
+
+    @Test
+    public void shortTextIsUnchanged() {
+        String text = "Photosynthesis turns light into chemical energy. It happens in the chloroplast.";
+        assertSame(text, new ExtractiveSummarizer().compress(text));
+    }
+
+    @Test
+    public void compressedOutputFitsBudgetInOrder() {
+        String text = transcript(200 * 1024, 1);
+        ExtractiveSummarizer summarizer = new ExtractiveSummarizer(4000);
+        assertTrue(summarizer.needsCompression(text));
+
+        String out = summarizer.compress(text);
+        assertFalse(out.isEmpty());
+        assertTrue(QuizPromptTemplate.estimateTokens(out) <= summarizer.getTokenBudget());
+        assertFalse(out.contains("[Music]"));
+
+        // Kept sentences appear in the same order as in the input
+        int from = 0;
+        for (String sentence : ExtractiveSummarizer.splitSentences(out)) {
+            int at = text.indexOf(sentence, from);
+            assertTrue("out of order: " + sentence, at >= 0);
+            from = at + sentence.length();
+        }
+    }
+
+    @Test
+    public void benchmarkBySize() throws Exception {
+        ExtractiveSummarizer summarizer = new ExtractiveSummarizer();
+        for (int kb : new int[]{100, 400, 1024}) {
+            String text = transcript(kb * 1024, kb);
+            List<String> sentences = ExtractiveSummarizer.splitSentences(text);
+            Bench.Result result = Bench.run("compress " + kb + " KB (" + sentences.size() + " sentences)",
+                    3, 10, () -> summarizer.compress(text));
+            System.out.printf("  %.1f ms per 100 KB%n", result.nanosPerOp / 1e6 * 100 / kb);
+            assertTrue(result.nanosPerOp > 0);
+        }
+    }
+
+    /**
+     * Caption-like text: topic sentences with numbered details, filler and repeated lines
+     */
+    private static String transcript(int chars, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(chars + 256);
+        int n = 0;
+        while (sb.length() < chars) {
+            int r = random.nextInt(10);
+            if (r == 0) {
+                sb.append(FILLER[random.nextInt(FILLER.length)]).append('\n');
+            } else if (r == 1 && n > 0) {
+                // Captions repeat the previous line fairly often
+                sb.append(TOPICS[(n - 1) % TOPICS.length]).append(" detail ").append(n - 1).append(".\n");
+            } else {
+                sb.append(TOPICS[n % TOPICS.length]).append(" detail ").append(n).append(".\n");
+                n++;
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.learnify.services;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class HeadMetaScannerTest {
+
+    private static final String TITLE = "<meta name=\"title\" content=\"Photosynthesis explained\">";
+
+    @Test
+    public void readsTagsSplitAcrossChunkBoundaries() throws Exception {
+        // Slide the tag over the 4K read boundary so it is split at every position
+        for (int pad = 4096 - TITLE.length() - 2; pad <= 4096 + 2; pad++) {
+            StringBuilder page = new StringBuilder("<html><head>");
+            while (page.length() < pad) page.append(' ');
+            page.append(TITLE).append("</head><body></body></html>");
+
+            HeadMetaScanner.Result result = HeadMetaScanner.scan(new StringReader(page.toString()));
+            assertEquals("pad " + pad, "Photosynthesis explained", result.title);
+        }
+    }
+
+    @Test
+    public void ignoresMetaInsideScripts() throws Exception {
+        String page = "<html><head>"
+                + "<script>var t = '<meta name=\"description\" content=\"from a script\">'; if (a > b) {}</script>"
+                + "<meta name=\"description\" content=\"Light and dark reactions\">"
+                + "</head></html>";
+
+        HeadMetaScanner.Result result = HeadMetaScanner.scan(new StringReader(page));
+        assertEquals("Light and dark reactions", result.description);
+    }
+
+    @Test
+    public void quotedGreaterThanDoesNotEndTheTag() throws Exception {
+        String page = "<html><head>"
+                + "<meta name=\"description\" content=\"Light -> sugar, 'CO2' > 0\">"
+                + "<meta content='A -> B' name='keywords'>"
+                + "</head></html>";
+
+        HeadMetaScanner.Result result = HeadMetaScanner.scan(new StringReader(page));
+        assertEquals("Light -> sugar, 'CO2' > 0", result.description);
+        assertEquals("A -> B", result.keywords);
+    }
+
+    @Test
+    public void stopsAtEndOfHead() throws Exception {
+        StringBuilder page = new StringBuilder("<html><head>" + TITLE + "</head><body>");
+        page.append("<meta name=\"description\" content=\"after the head\">");
+        while (page.length() < 100_000) page.append("<div class=\"filler\"></div>");
+
+        HeadMetaScanner.Result result = HeadMetaScanner.scan(new StringReader(page.toString()));
+        assertEquals("Photosynthesis explained", result.title);
+        assertEquals("", result.description);
+        assertTrue(result.charsRead < page.length());
+    }
+
+    @Test
+    public void fallsBackToOpenGraph() throws Exception {
+        String page = "<html><head>"
+                + "<meta property=\"og:title\" content=\"Calvin cycle &amp; ATP\">"
+                + "<meta property=\"og:description\" content=\"How plants fix carbon\">"
+                + "<meta name=\"description\" content=\"\">"
+                + "</head></html>";
+
+        HeadMetaScanner.Result result = HeadMetaScanner.scan(new StringReader(page));
+        assertEquals("Calvin cycle & ATP", result.title);
+        assertEquals("How plants fix carbon", result.description);
+        assertEquals("", result.keywords);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.learnify.services;
+
+import com.example.learnify.Bench;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * ParallelPageReader by page count and worker count, on PDFs generated with Apache PDFBox (the
+ * library PDFBox-Android is ported from; the Android build needs its assets and a device).
+ * One worker is the sequential baseline PdfPageExtractor uses for short documents.
+ */
+public class ParallelPageReaderBenchmark {
+
+    private static final int RANGE_PAGES = 8;
+    private static final int MAX_WORKERS = 4;
+    private static final int LINES_PER_PAGE = 40;
+
+    private static final ExecutorService pool = Executors.newFixedThreadPool(MAX_WORKERS);
+
+    @AfterClass
+    public static void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void pagesComeInOrder() throws Exception {
+        ParallelPageReader reader = new ParallelPageReader(pool, 3, 50, RANGE_PAGES, FakePages::new);
+        for (int page = 1; page <= 50; page++) assertEquals("page " + page, reader.page(page));
+        assertFalse(reader.isSequential());
+        reader.close();
+    }
+
+    @Test
+    public void failedWorkerFallsBackToOneThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        // Worker copies run out of memory on page 20, the fallback copy on this thread does not
+        ParallelPageReader reader = new ParallelPageReader(pool, 2, 60, RANGE_PAGES,
+                () -> new FakePages(Thread.currentThread() != caller ? 20 : -1));
+
+        for (int page = 1; page <= 60; page++) assertEquals("page " + page, reader.page(page));
+        assertTrue(reader.isSequential());
+        reader.close();
+    }
+
+    @Test
+    public void benchmarkByPageCountAndWorkers() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Worker counts above the core count show what oversubscription costs
+        System.out.println("Stripping generated PDFs, " + cores + " cores available");
+
+        for (int pages : new int[]{24, 100, 300}) {
+            File pdf = generate(pages);
+            try {
+                String expected = readAll(pdf, pages, 1);
+                assertTrue(expected.contains("Page " + pages + " line " + (LINES_PER_PAGE - 1)));
+
+                for (int workers : new int[]{1, 2, MAX_WORKERS}) {
+                    Bench.run(pages + " pages, " + workers + " workers", 1, 3, () -> {
+                        String text = readAll(pdf, pages, workers);
+                        assertEquals(expected, text);
+                        return text;
+                    });
+                }
+            } finally {
+                pdf.delete();
+            }
+        }
+    }
+
+    private String readAll(File pdf, int pages, int workers) throws Exception {
+        StringBuilder all = new StringBuilder();
+        try (ParallelPageReader reader = new ParallelPageReader(pool, workers, pages, RANGE_PAGES,
+                () -> new PdfPages(PDDocument.load(pdf, MemoryUsageSetting.setupMixed(4 * 1024 * 1024))))) {
+            for (int page = 1; page <= pages; page++) all.append(reader.page(page));
+        }
+        return all.toString();
+    }
+
+    private static File generate(int pages) throws IOException {
+        File file = File.createTempFile("bench", ".pdf");
+        try (PDDocument doc = new PDDocument()) {
+            for (int p = 1; p <= pages; p++) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 9);
+                    content.setLeading(11);
+                    content.newLineAtOffset(40, 750);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        content.showText("Page " + p + " line " + line
+                                + ": chlorophyll absorbs light and the Calvin cycle fixes carbon dioxide.");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            doc.save(file);
+        }
+        return file;
+    }
+
+    /**
+     * Same as PdfPageExtractor.SequentialPages, on Apache PDFBox
+     */
+    private static class PdfPages implements PageTextSource {
+        private final PDDocument doc;
+        private final PDFTextStripper stripper;
+
+        PdfPages(PDDocument doc) throws IOException {
+            this.doc = doc;
+            this.stripper = new PDFTextStripper();
+        }
+
+        @Override
+        public String page(int page) throws IOException {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            return stripper.getText(doc);
+        }
+
+        @Override
+        public void close() throws IOException {
+            doc.close();
+        }
+    }
+
+    private static class FakePages implements PageTextSource {
+        private final int outOfMemoryPage;
+
+        FakePages() {
+            this(-1);
+        }
+
+        FakePages(int outOfMemoryPage) {
+            this.outOfMemoryPage = outOfMemoryPage;
+        }
+
+        @Override
+        public String page(int page) {
+            if (page == outOfMemoryPage) throw new OutOfMemoryError("Failed to allocate page " + page);
+            return "page " + page;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
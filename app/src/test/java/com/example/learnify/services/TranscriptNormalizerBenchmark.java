@@ -0,0 +1,95 @@
+package com.example.learnify.services;
+
+import com.example.learnify.Bench;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * TranscriptNormalizer against the regex chain parseXml and clean used before: entity
+ * replace calls per line, then whitespace, [..] and (..) regexes over the joined text.
+ */
+public class TranscriptNormalizerBenchmark {
+
+    private static final Pattern TEXT = Pattern.compile("<text[^>]*>([^<]*)</text>");
+    private static final String[] WORDS = {"the", "function", "returns", "a", "list", "of", "values",
+            "we", "can", "see", "that", "recursion", "is", "&quot;elegant&quot;", "it&#39;s", "A&amp;B", "&lt;T&gt;"};
+    private static final String[] ANNOTATIONS = {"[Music]", "[Applause]", "(inaudible)", "[Laughter]"};
+
+    @Test
+    public void matchesRegexChainOnCaptionXml() {
+        String xml = captionXml(500, 1);
+        assertEquals(regexChain(xml), normalizer(xml));
+    }
+
+    @Test
+    public void benchmarkAgainstRegexChain() throws Exception {
+        for (int lines : new int[]{1_000, 10_000}) {
+            String xml = captionXml(lines, lines);
+            System.out.println("Caption XML with " + lines + " lines (" + xml.length() / 1024 + " KB)");
+            Bench.Result baseline = Bench.run("regex chain", 5, 30, () -> regexChain(xml));
+            Bench.Result single = Bench.run("TranscriptNormalizer", 5, 30, () -> normalizer(xml));
+            assertTrue(baseline.nanosPerOp > 0 && single.nanosPerOp > 0);
+        }
+    }
+
+    private static String regexChain(String xml) {
+        StringBuilder sb = new StringBuilder();
+        Matcher m = TEXT.matcher(xml);
+        while (m.find()) {
+            sb.append(m.group(1)
+                            .replace("&amp;", "&")
+                            .replace("&#39;", "'")
+                            .replace("&quot;", "\"")
+                            .replace("&lt;", "<")
+                            .replace("&gt;", ">"))
+                    .append(" ");
+        }
+        return sb.toString().replaceAll("\\s+", " ")
+                .replaceAll("\\[.*?]", "")
+                .replaceAll("\\(.*?\\)", "")
+                .trim()
+                // The regexes leave a double space where an annotation sat between words
+                .replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Same scan as YouTubeTranscriptService.parseXml
+     */
+    private static String normalizer(String xml) {
+        TranscriptNormalizer normalizer = TranscriptNormalizer.obtain();
+        int from = 0;
+        while (true) {
+            int open = xml.indexOf("<text", from);
+            if (open < 0) break;
+            int contentStart = xml.indexOf('>', open) + 1;
+            if (contentStart == 0) break;
+            int close = xml.indexOf("</text>", contentStart);
+            if (close < 0) break;
+            if (xml.indexOf('<', contentStart) == close) normalizer.append(xml, contentStart, close);
+            from = close + 7;
+        }
+        return normalizer.finish();
+    }
+
+    private static String captionXml(int lines, long seed) {
+        Random random = new Random(seed);
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\" ?><transcript>");
+        for (int i = 0; i < lines; i++) {
+            xml.append("<text start=\"").append(i * 2.5).append("\" dur=\"2.5\">");
+            int words = 4 + random.nextInt(8);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) xml.append(random.nextInt(20) == 0 ? "  " : " ");
+                xml.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            if (random.nextInt(10) == 0) xml.append(' ').append(ANNOTATIONS[random.nextInt(ANNOTATIONS.length)]);
+            xml.append("</text>");
+        }
+        return xml.append("</transcript>").toString();
+    }
+}
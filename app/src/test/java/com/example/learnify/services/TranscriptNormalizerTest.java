@@ -0,0 +1,64 @@
+package com.example.learnify.services;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TranscriptNormalizerTest {
+
+    @Test
+    public void decodesNamedAndNumericEntities() {
+        assertEquals("Tom & Jerry's \"show\" <b>",
+                TranscriptNormalizer.normalize("Tom &amp; Jerry&#39;s &quot;show&quot; &lt;b&gt;"));
+        assertEquals("café 😀", TranscriptNormalizer.normalize("caf&#xE9; &#128512;"));
+        // &nbsp; is whitespace and collapses like any other
+        assertEquals("a b", TranscriptNormalizer.normalize("a&nbsp;&nbsp; b"));
+    }
+
+    @Test
+    public void keepsUnknownAndMalformedEntities() {
+        assertEquals("&copy; &#xZZ; &; & alone &amp", TranscriptNormalizer.normalize("&copy; &#xZZ; &; & alone &amp"));
+        // An encoded bracket is text, not the start of an annotation
+        assertEquals("a [b] c", TranscriptNormalizer.decodeEntities("a &#91;b&#93; c"));
+    }
+
+    @Test
+    public void dropsAnnotationsAndCollapsesWhitespace() {
+        assertEquals("so this is the intro",
+                TranscriptNormalizer.normalize("  [Music]  so \n this\tis (inaudible) the   intro [Applause] "));
+    }
+
+    @Test
+    public void annotationSplitAcrossLinesIsRemoved() {
+        String[] lines = {"welcome back [Mus", "ic] today we", "cover (cross", "talk) recursion"};
+        TranscriptNormalizer normalizer = TranscriptNormalizer.obtain();
+        for (String line : lines) normalizer.append(line, 0, line.length());
+        assertEquals("welcome back today we cover recursion", normalizer.finish());
+    }
+
+    @Test
+    public void entitySplitAcrossLinesIsNotJoined() {
+        // Ranges are separate lines, an entity cannot span them
+        TranscriptNormalizer normalizer = TranscriptNormalizer.obtain();
+        normalizer.append("fish &am", 0, 8).append("p; chips", 0, 8);
+        assertEquals("fish &am p; chips", normalizer.finish());
+    }
+
+    @Test
+    public void unclosedAnnotationIsKeptAsText() {
+        assertEquals("the array [0 holds the head", TranscriptNormalizer.normalize("the array [0 holds the head"));
+        // Only the opener is taken back, complete annotations after it are still dropped
+        assertEquals("f(x is not closed", TranscriptNormalizer.normalize("f(x is [Music] not closed"));
+        assertEquals("a (b [c", TranscriptNormalizer.normalize("a (b [c"));
+    }
+
+    @Test
+    public void instanceIsReusedAfterFinish() {
+        TranscriptNormalizer first = TranscriptNormalizer.obtain();
+        first.append("[unclosed", 0, 9);
+        assertEquals("[unclosed", first.finish());
+        TranscriptNormalizer second = TranscriptNormalizer.obtain();
+        assertSame(first, second);
+        assertEquals("clean", second.append("clean", 0, 5).finish());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.learnify.services;
+
+import com.example.learnify.Bench;
+
+import org.json.JSONArray;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * WatchPageScanner against buffering the whole page into a String and matching captionTracks
+ * with a regex, as fetchPage did before. Allocation per op is the number to watch: the
+ * scanner never holds the page.
+ */
+public class WatchPageScannerBenchmark {
+
+    private static final int PAGE_CHARS = 1_700_000;
+    private static final Pattern TRACKS = Pattern.compile("\"captionTracks\":\\s*(\\[.*?\\])\\s*,\\s*\"audioTracks\"", Pattern.DOTALL);
+
+    @Test
+    public void benchmarkAgainstWholePage() throws Exception {
+        String page = page(PAGE_CHARS);
+
+        WatchPageScanner.Result scanned = WatchPageScanner.scan(new StringReader(page));
+        JSONArray regex = wholePage(new StringReader(page));
+        assertNotNull(scanned.captionTracks);
+        assertEquals(regex.toString(), scanned.captionTracks.toString());
+        System.out.println("Watch page of " + page.length() / 1024 + " KB, scanner read "
+                + scanned.charsRead / 1024 + " KB");
+
+        Bench.Result baseline = Bench.run("whole page + regex", 5, 30, () -> wholePage(new StringReader(page)));
+        Bench.Result streaming = Bench.run("WatchPageScanner", 5, 30, () -> WatchPageScanner.scan(new StringReader(page)));
+        assertTrue(baseline.nanosPerOp > 0 && streaming.nanosPerOp > 0);
+    }
+
+    @Test
+    public void benchmarkPageWithoutCaptions() throws Exception {
+        String page = page(PAGE_CHARS).replace("\"captionTracks\"", "\"noTracks\"");
+        Bench.Result result = Bench.run("WatchPageScanner, no captions", 5, 30,
+                () -> WatchPageScanner.scan(new StringReader(page)));
+        assertNull(WatchPageScanner.scan(new StringReader(page)).captionTracks);
+        assertTrue(result.nanosPerOp > 0);
+    }
+
+    private static JSONArray wholePage(Reader reader) throws Exception {
+        StringBuilder html = new StringBuilder();
+        char[] buffer = new char[8192];
+        int n;
+        while ((n = reader.read(buffer)) != -1) html.append(buffer, 0, n);
+        Matcher m = TRACKS.matcher(html);
+        return m.find() ? new JSONArray(m.group(1)) : null;
+    }
+
+    /**
+     * Head scripts, the player response with captions about 40% in, then ytInitialData and markup
+     */
+    private static String page(int chars) {
+        StringBuilder page = new StringBuilder(chars + 4096);
+        page.append("<!DOCTYPE html><html><head>");
+        while (page.length() < chars * 2 / 5) {
+            page.append("<script nonce=\"x\">(function(){var a=").append(page.length()).append(";window.b=a*2;})();</script>\n");
+        }
+        page.append("<script>var ytInitialPlayerResponse = {\"responseContext\":{},\"captions\":{\"playerCaptionsTracklistRenderer\":{\"captionTracks\":[");
+        String[] langs = {"en", "de", "fr", "es", "hi", "ar"};
+        for (int i = 0; i < langs.length; i++) {
+            if (i > 0) page.append(',');
+            page.append("{\"baseUrl\":\"https://www.youtube.com/api/timedtext?v=abc\\u0026caps=asr\\u0026lang=")
+                    .append(langs[i]).append("\",\"name\":{\"simpleText\":\"Track [").append(langs[i])
+                    .append("]\"},\"vssId\":\".").append(langs[i]).append("\",\"languageCode\":\"")
+                    .append(langs[i]).append("\",\"isTranslatable\":true}");
+        }
+        page.append("],\"audioTracks\":[{\"captionTrackIndices\":[0]}]}}};</script>\n");
+        page.append("<script>var ytInitialData = {\"contents\":{}};</script>\n");
+        while (page.length() < chars) {
+            page.append("<div class=\"ytd-item\" data-index=\"").append(page.length()).append("\"><span>Related video</span></div>\n");
+        }
+        return page.append("</body></html>").toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.learnify.services;
+
+import org.json.JSONArray;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class WatchPageScannerTest {
+
+    // Names with brackets, braces and escaped quotes must not change the bracket depth
+    private static final String TRACKS = "[{\"baseUrl\":\"https://www.youtube.com/api/timedtext?v=abc\\u0026lang=en\","
+            + "\"name\":{\"simpleText\":\"English [auto] {x} \\\"quoted\\\" \\\\\"},\"languageCode\":\"en\"},"
+            + "{\"baseUrl\":\"https://www.youtube.com/api/timedtext?v=abc\\u0026lang=de\","
+            + "\"name\":{\"simpleText\":\"]]}}\"},\"languageCode\":\"de\"}]";
+
+    @Test
+    public void capturesTracksAcrossChunkBoundaries() throws Exception {
+        // Slide the array over the 8K read boundary so it is split at every position of the marker and the array
+        int span = "\"captionTracks\":".length() + TRACKS.length();
+        for (int pad = 8192 - span - 2; pad <= 8192 + 2; pad++) {
+            WatchPageScanner.Result result = WatchPageScanner.scan(new StringReader(page(pad)));
+            assertTracks("pad " + pad, result.captionTracks);
+            assertTrue(result.stoppedEarly);
+        }
+    }
+
+    @Test
+    public void capturesTracksFromTinyReads() throws Exception {
+        for (int maxRead = 1; maxRead <= 7; maxRead++) {
+            WatchPageScanner.Result result = WatchPageScanner.scan(new ChunkedReader(page(300), maxRead));
+            assertTracks("reads of " + maxRead, result.captionTracks);
+        }
+    }
+
+    @Test
+    public void stopsAtInitialDataWithoutCaptions() throws Exception {
+        StringBuilder page = new StringBuilder("<script>var ytInitialPlayerResponse = {\"playabilityStatus\":{}};</script>");
+        page.append("<script>var ytInitialData = {};</script>");
+        while (page.length() < 100_000) page.append("<div class=\"filler\"></div>");
+
+        WatchPageScanner.Result result = WatchPageScanner.scan(new StringReader(page.toString()));
+        assertNull(result.captionTracks);
+        assertTrue(result.stoppedEarly);
+        assertTrue(result.noCaptions);
+        assertTrue(result.charsRead < page.length());
+    }
+
+    @Test
+    public void unterminatedArrayIsNotFound() throws Exception {
+        String page = "ytInitialPlayerResponse = {\"captions\":{\"captionTracks\":[{\"baseUrl\":\"x\"";
+        WatchPageScanner.Result result = WatchPageScanner.scan(new ChunkedReader(page, 5));
+        assertNull(result.captionTracks);
+        assertFalse(result.stoppedEarly);
+        // Markup the scanner could not follow: the caller falls back to the regex strategies
+        assertFalse(result.noCaptions);
+        assertEquals(page.length(), result.charsRead);
+    }
+
+    private static void assertTracks(String message, JSONArray tracks) throws Exception {
+        assertNotNull(message, tracks);
+        assertEquals(message, 2, tracks.length());
+        assertEquals(message, "English [auto] {x} \"quoted\" \\",
+                tracks.getJSONObject(0).getJSONObject("name").getString("simpleText"));
+        assertEquals(message, "de", tracks.getJSONObject(1).getString("languageCode"));
+    }
+
+    private static String page(int pad) {
+        StringBuilder page = new StringBuilder("<html><script>var ytInitialPlayerResponse = {\"captions\":");
+        while (page.length() < pad) page.append(' ');
+        page.append("{\"playerCaptionsTracklistRenderer\":{\"captionTracks\":").append(TRACKS).append("}}};</script>");
+        page.append("<script>var ytInitialData = {};</script></html>");
+        return page.toString();
+    }
+
+    /**
+     * Hands out at most maxRead chars per read, like a slow network body
+     */
+    private static class ChunkedReader extends Reader {
+        private final String text;
+        private final int maxRead;
+        private int position = 0;
+
+        ChunkedReader(String text, int maxRead) {
+            this.text = text;
+            this.maxRead = maxRead;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= text.length()) return -1;
+            int n = Math.min(Math.min(length, maxRead), text.length() - position);
+            text.getChars(position, position + n, buffer, offset);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {}
+    }
+}